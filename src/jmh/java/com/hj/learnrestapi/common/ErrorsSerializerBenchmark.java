@@ -0,0 +1,43 @@
+package com.hj.learnrestapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hj.learnrestapi.events.EventDto;
+import com.hj.learnrestapi.events.EventFixtures;
+import com.hj.learnrestapi.events.EventValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 400 응답 본문(ErrorsResource) 직렬화. EventValidator 가 만든 필드 에러 3개와 글로벌 에러 1개.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorsSerializerBenchmark {
+    private ObjectMapper objectMapper;
+    private ErrorsResource errorsResource;
+
+    @Setup
+    public void setUp() {
+        objectMapper = HalObjectMapper.create();
+
+        EventDto eventDto = EventFixtures.eventDto();
+        eventDto.setBasePrice(10000);
+        eventDto.setEndEventDateTime(LocalDateTime.of(2018, 10, 1, 0, 0));
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        new EventValidator().validate(eventDto, errors);
+        errorsResource = new ErrorsResource(errors);
+    }
+
+    @Benchmark
+    public byte[] serializeErrors() throws Exception {
+        return objectMapper.writeValueAsBytes(errorsResource);
+    }
+}
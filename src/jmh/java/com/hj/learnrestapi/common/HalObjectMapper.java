@@ -0,0 +1,35 @@
+package com.hj.learnrestapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.validation.Errors;
+
+/**
+ * 스프링 컨텍스트 없이 애플리케이션과 같은 HAL 직렬화 설정을 만든다.
+ * (HAL 모듈, java.time, @JsonComponent 로 등록되는 ErrorsSerializer)
+ */
+public final class HalObjectMapper {
+
+    private HalObjectMapper() {
+    }
+
+    public static ObjectMapper create() {
+        SimpleModule errorsModule = new SimpleModule();
+        errorsModule.addSerializer(Errors.class, new ErrorsSerializer());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.registerModule(errorsModule);
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        return objectMapper;
+    }
+}
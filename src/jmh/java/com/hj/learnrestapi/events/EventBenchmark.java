@@ -0,0 +1,26 @@
+package com.hj.learnrestapi.events;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBenchmark {
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        event = EventFixtures.event(1L);
+    }
+
+    @Benchmark
+    public Event update() {
+        event.update();
+        return event;
+    }
+}
@@ -0,0 +1,43 @@
+package com.hj.learnrestapi.events;
+
+import java.time.LocalDateTime;
+
+public final class EventFixtures {
+
+    private EventFixtures() {
+    }
+
+    public static EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 4, 12, 29))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 5, 12, 29))
+                .beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+                .endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("당산동")
+                .build();
+    }
+
+    public static Event event(long id) {
+        return Event.builder()
+                .id(id)
+                .name("event " + id)
+                .description("test event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 4, 12, 29))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 5, 12, 29))
+                .beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+                .endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("당산동")
+                .free(false)
+                .offline(true)
+                .eventStatus(EventStatus.DRAFT)
+                .build();
+    }
+}
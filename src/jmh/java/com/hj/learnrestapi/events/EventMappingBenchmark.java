@@ -0,0 +1,55 @@
+package com.hj.learnrestapi.events;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createEvent, modifyEvent 의 매핑 단계 비교.
+ * 런타임 리플렉션 기반 ModelMapper(이전)와 컴파일 시점에 생성된 EventMapper(이후).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMappingBenchmark {
+    private ModelMapper modelMapper;
+    private EventMapper eventMapper;
+    private EventDto eventDto;
+    private Event target;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        eventMapper = new EventMapperImpl();
+        eventDto = EventFixtures.eventDto();
+        target = new Event();
+        //ModelMapper 는 첫 호출 때 TypeMap 을 만들기 때문에 미리 한 번 실행해 둔다.
+        modelMapper.map(eventDto, Event.class);
+    }
+
+    @Benchmark
+    public Event modelMapperCreate() {
+        return modelMapper.map(eventDto, Event.class);
+    }
+
+    @Benchmark
+    public Event modelMapperUpdate() {
+        modelMapper.map(eventDto, target);
+        return target;
+    }
+
+    @Benchmark
+    public Event eventMapperCreate() {
+        return eventMapper.toEvent(eventDto);
+    }
+
+    @Benchmark
+    public Event eventMapperUpdate() {
+        eventMapper.updateEvent(eventDto, target);
+        return target;
+    }
+}
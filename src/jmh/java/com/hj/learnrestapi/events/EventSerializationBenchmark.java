@@ -0,0 +1,72 @@
+package com.hj.learnrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hj.learnrestapi.common.HalObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * getEvent(@JsonUnwrapped Event 포함 EventResource)와 queryEvents(20개 페이지) 응답 직렬화.
+ * 리소스 생성(링크 포함)과 직렬화를 나눠서 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private Event event;
+    private List<Event> events;
+    private EventResource eventResource;
+    private PagedModel<EventResource> pagedModel;
+
+    @Setup
+    public void setUp() {
+        objectMapper = HalObjectMapper.create();
+        event = EventFixtures.event(1L);
+        events = LongStream.rangeClosed(1, PAGE_SIZE).mapToObj(EventFixtures::event).toList();
+        eventResource = eventResource(event);
+        pagedModel = pagedModel(events);
+    }
+
+    @Benchmark
+    public byte[] serializeEventResource() throws Exception {
+        return objectMapper.writeValueAsBytes(eventResource);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeEventResource() throws Exception {
+        return objectMapper.writeValueAsBytes(eventResource(event));
+    }
+
+    @Benchmark
+    public byte[] serializePagedModel() throws Exception {
+        return objectMapper.writeValueAsBytes(pagedModel);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializePagedModel() throws Exception {
+        return objectMapper.writeValueAsBytes(pagedModel(events));
+    }
+
+    private EventResource eventResource(Event event) {
+        EventResource eventResource = new EventResource(event);
+        eventResource.add(EventLinks.PROFILE_GET);
+        return eventResource;
+    }
+
+    private PagedModel<EventResource> pagedModel(List<Event> events) {
+        List<EventResource> content = events.stream().map(EventResource::new).toList();
+        PagedModel<EventResource> pagedModel = PagedModel.of(content, new PagedModel.PageMetadata(PAGE_SIZE, 0, 100));
+        pagedModel.add(EventLinks.PROFILE_LIST);
+        return pagedModel;
+    }
+}
@@ -0,0 +1,44 @@
+package com.hj.learnrestapi.events;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventValidatorBenchmark {
+    private EventValidator eventValidator;
+    private EventDto validEventDto;
+    private EventDto wrongEventDto;
+
+    @Setup
+    public void setUp() {
+        eventValidator = new EventValidator();
+        validEventDto = EventFixtures.eventDto();
+        wrongEventDto = EventFixtures.eventDto();
+        wrongEventDto.setBasePrice(10000);
+        wrongEventDto.setEndEventDateTime(LocalDateTime.of(2018, 10, 1, 0, 0));
+    }
+
+    //Errors 는 요청마다 새로 만들어지므로 생성 비용까지 포함한다.
+    @Benchmark
+    public Errors validate() {
+        Errors errors = new BeanPropertyBindingResult(validEventDto, "eventDto");
+        eventValidator.validate(validEventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors validateWrongInput() {
+        Errors errors = new BeanPropertyBindingResult(wrongEventDto, "eventDto");
+        eventValidator.validate(wrongEventDto, errors);
+        return errors;
+    }
+}
@@ -0,0 +1,49 @@
+#!/bin/sh
+# 플랫폼 스레드(기본)와 가상 스레드(virtual 프로필)로 같은 부하를 주고 결과를 비교한다.
+# 필요: Java 21, 로컬 MySQL(prod 프로필의 rest_api DB), mysql 클라이언트, k6
+# 결과: src/loadtest/results/<모드>.json (k6 summary. http_reqs rate, http_req_duration p95/p99, http_req_failed 비교)
+#       src/loadtest/results/virtual-pinned.txt (가상 스레드가 캐리어에 고정된 스택. 비어 있어야 한다)
+# 결과는 커밋해서 버전 간에 비교한다.
+set -e
+cd "$(dirname "$0")/../.."
+
+./gradlew bootJar -x test -x asciidoctor
+JAR=$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)
+RESULTS=src/loadtest/results
+mkdir -p build/loadtest "$RESULTS"
+
+run() {
+    name=$1
+    profiles=$2
+    jvm_opts=$3
+    # 모든 VU 가 한 IP 에서 오므로 속도 제한을 켜 두면 대부분 429 가 되어 스레드 모드가 아니라 속도 제한을 재게 된다. 비교할 때는 끈다.
+    java $jvm_opts -jar "$JAR" --spring.profiles.active="$profiles" --learn-rest-api.rate-limit.enabled=false > "build/loadtest/$name.log" 2>&1 &
+    pid=$!
+    # 기본 계정으로 토큰을 받을 수 있으면 기동이 끝난 것이다.
+    until curl -sf -o /dev/null -H "Content-Type: application/json" \
+            -d '{"username":"jwj@email.com","password":"1234"}' "http://localhost:8080/api/token"; do sleep 1; done
+
+    # ddl-auto: create-drop 이라 기동할 때마다 이벤트 1000개를 다시 넣는다.
+    mysql -uroot -proot rest_api -e "
+        SET SESSION cte_max_recursion_depth = 1000;
+        INSERT INTO event (id, name, description, begin_enrollment_date_time, close_enrollment_date_time,
+                           begin_event_date_time, end_event_date_time, location, base_price, max_price,
+                           limit_of_enrollment, offline, free, event_status, version)
+        WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+        SELECT n, CONCAT('event ', n), 'load test', '2018-10-04 12:29', '2018-10-05 12:29',
+               '2018-11-25 14:21', '2018-11-26 14:21', '당산동', 100, 200, 100, true, false, 'PUBLISHED', 0
+        FROM seq;
+        UPDATE event_seq SET next_val = 2001;"
+
+    k6 run --summary-export "$RESULTS/$name.json" src/loadtest/k6/query-events.js
+    kill "$pid"
+    wait "$pid" || true
+}
+
+run platform "prod" ""
+# JPA 경로에서 캐리어 스레드가 고정되면 JDK 가 스택을 출력한다.
+run virtual "prod,virtual" "-Djdk.tracePinnedThreads=full"
+grep -A 30 "CarrierThreads]" build/loadtest/virtual.log > "$RESULTS/virtual-pinned.txt" || true
+if [ -s "$RESULTS/virtual-pinned.txt" ]; then
+    echo "가상 스레드 고정이 발견되었다: $RESULTS/virtual-pinned.txt" >&2
+fi
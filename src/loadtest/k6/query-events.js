@@ -0,0 +1,45 @@
+// 이벤트 조회 부하 테스트. 플랫폼 스레드/가상 스레드 비교용 (src/loadtest/compare-thread-modes.sh 에서 실행)
+// k6 run -e BASE_URL=http://localhost:8080 src/loadtest/k6/query-events.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'jwj@email.com';
+const PASSWORD = __ENV.PASSWORD || '1234';
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '1m', target: 1000 },
+                { duration: '1m', target: 1000 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+//테스트 시작 전에 한 번 토큰을 받아서 모든 VU 가 같이 쓴다. 토큰 검증은 서명만 확인하므로 DB 를 조회하지 않는다.
+export function setup() {
+    const response = http.post(`${BASE_URL}/api/token`, JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    if (response.status !== 200) {
+        throw new Error(`POST /api/token returned ${response.status}`);
+    }
+    return { token: response.json('access_token') };
+}
+
+export default function (data) {
+    const params = { headers: { Authorization: `Bearer ${data.token}` } };
+
+    const page = Math.floor(Math.random() * 50);
+    const list = http.get(`${BASE_URL}/api/events?page=${page}&size=20&sort=name,DESC`, Object.assign({ tags: { name: 'query-events' } }, params));
+    check(list, { 'query-events 200': (r) => r.status === 200 });
+
+    const id = 1 + Math.floor(Math.random() * 1000);
+    const one = http.get(`${BASE_URL}/api/events/${id}`, Object.assign({ tags: { name: 'get-event' } }, params));
+    check(one, { 'get-event 200/404': (r) => r.status === 200 || r.status === 404 });
+}
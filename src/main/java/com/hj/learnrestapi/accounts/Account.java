@@ -1,22 +1,35 @@
 package com.hj.learnrestapi.accounts;
 
+import com.hj.learnrestapi.common.BlockIdGenerator;
+import com.hj.learnrestapi.configs.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ACCOUNT_REGION)
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class Account {
-    @Id @GeneratedValue
+    @Id @GeneratedValue(generator = "account_id")
+    @GenericGenerator(name = "account_id", type = BlockIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "account_seq"))
     private Integer id;
 
     private String email;
 
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    //인증할 때만 필요하므로 AccountRepository.findByEmail 에서 함께 조인해서 가져온다.
+    @ElementCollection(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ACCOUNT_ROLES_REGION)
     @Enumerated(EnumType.STRING)
     private Set<AccountRole> roles;
 }
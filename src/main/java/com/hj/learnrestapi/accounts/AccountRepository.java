@@ -1,10 +1,20 @@
 package com.hj.learnrestapi.accounts;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
+    //roles 를 fetch join 해서 쿼리 한 번으로 UserDetails 에 필요한 값을 모두 읽는다.
+    //선언한 조회 메서드에는 트랜잭션 속성이 없으므로 readOnly 를 직접 붙여야 복제본으로 간다. 쓰기 트랜잭션 안에서 부르면 primary 에서 읽는다.
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "roles")
     Optional<Account> findByEmail(String username);
+
+    //복제 지연 중에도 방금 저장된 계정을 찾아야 할 때 primary 에서 읽는다.
+    @Transactional
+    @EntityGraph(attributePaths = "roles")
+    Optional<Account> findPrimaryByEmail(String username);
 }
@@ -5,26 +5,30 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
+    //복제본에서 읽는다. 복제본에 없으면 primary 에서 한 번 더 확인해서, 방금 가입한 계정을 복제 지연 동안 없는 계정으로 기억하지 않는다.
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException(username));
-        return new User(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
+        return userDetailsCache.get(username, email -> accountRepository.findByEmail(email)
+                .or(() -> accountRepository.findPrimaryByEmail(email))
+                .map(account -> new User(account.getEmail(), account.getPassword(), authorities(account.getRoles()))));
     }
 
     private Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
@@ -34,7 +38,19 @@ public class AccountService implements UserDetailsService {
 
     public Account saveAccount(Account account) {
         account.setPassword(passwordEncoder.encode(account.getPassword()));
-        return this.accountRepository.save(account);
+        Account savedAccount = this.accountRepository.save(account);
+        userDetailsCache.invalidate(savedAccount.getEmail());
+        return savedAccount;
+    }
+
+    //로그인 성공 후 DaoAuthenticationProvider 가 설정된 work factor 로 다시 인코딩한 비밀번호를 넘겨준다.
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        accountRepository.findByEmail(user.getUsername())
+                .ifPresent(account -> account.setPassword(newPassword));
+        userDetailsCache.invalidate(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
     }
 
 }
@@ -0,0 +1,83 @@
+package com.hj.learnrestapi.accounts;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로그인 비밀번호 검증(bcrypt)을 전용 스레드 풀에서 실행하는 벌크헤드.
+ * 로그인이 몰려도 bcrypt 가 쓰는 CPU 는 threads 개로 제한되고, 요청 스레드는 기다리지 않고 바로 반환된다.
+ * 대기열(queue-capacity)이 가득 차면 쌓아 두지 않고 LoginRejectedException 으로 바로 거절한다.
+ * timeout 이 지난 요청은 대기열에서 빼고, 이미 꺼내졌더라도 검증하지 않는다.
+ */
+@Component
+public class CredentialVerifier {
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    public CredentialVerifier(AuthenticationManager authenticationManager,
+                              @Value("${learn-rest-api.login.threads:2}") int threads,
+                              @Value("${learn-rest-api.login.queue-capacity:100}") int queueCapacity,
+                              @Value("${learn-rest-api.login.timeout:5s}") Duration timeout) {
+        this.authenticationManager = authenticationManager;
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credential-verifier-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<Authentication> authenticate(Authentication authentication) {
+        CompletableFuture<Authentication> result = new CompletableFuture<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            //이미 503 으로 응답한 요청이면 bcrypt 를 돌리지 않는다.
+            if (result.isDone() || System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+            try {
+                result.complete(authenticationManager.authenticate(authentication));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+            return null;
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LoginRejectedException("Too many concurrent logins", e));
+        }
+
+        //시간이 지나면 대기열 자리를 돌려준 뒤에 응답한다. 실행 중인 bcrypt 는 인터럽트로 멈추지 않으므로 끝까지 둔다.
+        return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((authenticated, throwable) -> {
+                    if (throwable instanceof TimeoutException) {
+                        task.cancel(false);
+                        executor.remove(task);
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+package com.hj.learnrestapi.accounts;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * 비밀번호 검증 대기열이 가득 차서 로그인 요청을 바로 거절했을 때 던진다.
+ * 자격 증명이 틀린 것이 아니므로 401 이 아니라 503 으로 응답한다.
+ */
+public class LoginRejectedException extends AuthenticationServiceException {
+    public LoginRejectedException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
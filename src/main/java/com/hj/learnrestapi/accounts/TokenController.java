@@ -0,0 +1,56 @@
+package com.hj.learnrestapi.accounts;
+
+import com.hj.learnrestapi.configs.SecurityConfig;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+@RequiredArgsConstructor
+@RestController
+public class TokenController {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final CredentialVerifier credentialVerifier;
+    private final TokenService tokenService;
+
+    //비밀번호 검증은 기존 AuthenticationManager(AccountService)가 CredentialVerifier 의 전용 스레드에서 한다.
+    //검증이 끝날 때까지 요청 스레드를 붙잡지 않도록 비동기로 응답한다.
+    @PostMapping(value = SecurityConfig.TOKEN_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<TokenResponse>> issueToken(@RequestBody @Valid TokenRequest tokenRequest, Errors errors) {
+        if (errors.hasErrors()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        return credentialVerifier.authenticate(UsernamePasswordAuthenticationToken
+                        .unauthenticated(tokenRequest.getUsername(), tokenRequest.getPassword()))
+                .thenApply(authentication -> ResponseEntity.ok(tokenService.issue(authentication)))
+                .exceptionally(this::loginFailed);
+    }
+
+    private ResponseEntity<TokenResponse> loginFailed(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        //대기열이 가득 찼거나 너무 오래 기다린 경우. 자격 증명 문제가 아니므로 잠시 뒤 다시 시도하게 한다.
+        if (cause instanceof LoginRejectedException || cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        if (cause instanceof AuthenticationException) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        throw throwable instanceof CompletionException completionException ? completionException : new CompletionException(cause);
+    }
+}
@@ -0,0 +1,18 @@
+package com.hj.learnrestapi.accounts;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class TokenRequest {
+    @NotEmpty
+    private String username;
+    @NotEmpty
+    private String password;
+}
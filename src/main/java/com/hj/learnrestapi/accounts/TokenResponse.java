@@ -0,0 +1,17 @@
+package com.hj.learnrestapi.accounts;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//OAuth2 토큰 응답과 같은 필드 이름을 쓴다.
+@AllArgsConstructor
+@Getter
+public class TokenResponse {
+    @JsonProperty("access_token")
+    private String accessToken;
+    @JsonProperty("token_type")
+    private String tokenType;
+    @JsonProperty("expires_in")
+    private long expiresIn;
+}
@@ -0,0 +1,42 @@
+package com.hj.learnrestapi.accounts;
+
+import com.hj.learnrestapi.configs.SecurityConfig;
+import com.hj.learnrestapi.configs.TokenProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * 인증이 끝난 사용자에게 서명 토큰을 발급한다.
+ * 토큰에 이메일(sub)과 권한을 담아 두기 때문에 이후 요청은 서명과 만료 시간만 확인하면 된다.
+ */
+@RequiredArgsConstructor
+@Service
+public class TokenService {
+    private final JwtEncoder jwtEncoder;
+    private final TokenProperties tokenProperties;
+
+    public TokenResponse issue(Authentication authentication) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(tokenProperties.getIssuer())
+                .issuedAt(now)
+                .expiresAt(now.plus(tokenProperties.getTimeToLive()))
+                .subject(authentication.getName())
+                .claim(SecurityConfig.AUTHORITIES_CLAIM, authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        return new TokenResponse(token, "Bearer", tokenProperties.getTimeToLive().toSeconds());
+    }
+}
@@ -0,0 +1,102 @@
+package com.hj.learnrestapi.accounts;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * loadUserByUsername 결과 캐시.
+ * 없는 이메일은 짧은 시간 동안 negative 캐시에 담아서 같은 이메일로 계속 들어오는 요청이 DB 를 두드리지 않게 한다.
+ */
+@Component
+public class UserDetailsCache {
+    private final AsyncCache<String, UserDetails> users;
+    private final Cache<String, Boolean> unknownUsernames;
+    //이메일별 마지막 invalidate 순번. 그보다 먼저 시작한 로딩이 negative 항목을 남기지 않게 한다.
+    private final Cache<String, Long> invalidations;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public UserDetailsCache(@Value("${learn-rest-api.user-details-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${learn-rest-api.user-details-cache.time-to-live:5m}") Duration timeToLive,
+                            @Value("${learn-rest-api.user-details-cache.negative-time-to-live:30s}") Duration negativeTimeToLive) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .buildAsync();
+        this.unknownUsernames = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeTimeToLive)
+                .build();
+        this.invalidations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeTimeToLive)
+                .build();
+    }
+
+    public UserDetails get(String username, Function<String, Optional<UserDetails>> loader) {
+        if (unknownUsernames.getIfPresent(username) != null) {
+            throw new UsernameNotFoundException(username);
+        }
+
+        long startedAt = sequence.get();
+        UserDetails userDetails = load(username, loader);
+        if (userDetails == null) {
+            //조회하는 동안 saveAccount 가 invalidate 했다면 새 계정을 못 본 결과이므로 남기지 않는다.
+            //invalidate 와 같은 키에서 원자적으로 확인하고 넣는다.
+            unknownUsernames.asMap().compute(username, (key, unknown) -> {
+                Long invalidatedAt = invalidations.getIfPresent(key);
+                return invalidatedAt != null && invalidatedAt > startedAt ? unknown : Boolean.TRUE;
+            });
+            throw new UsernameNotFoundException(username);
+        }
+
+        //인증이 끝나면 ProviderManager 가 eraseCredentials()로 비밀번호를 지우기 때문에 복사본을 돌려준다.
+        return User.withUserDetails(userDetails).build();
+    }
+
+    //같은 이메일로 동시에 들어온 요청은 한 번만 로딩한다.
+    //로딩(DB 조회)은 캐시 내부 락(synchronized) 밖의 호출 스레드에서 하므로 가상 스레드를 carrier 에 고정하지 않는다.
+    private UserDetails load(String username, Function<String, Optional<UserDetails>> loader) {
+        CompletableFuture<UserDetails> future = new CompletableFuture<>();
+        CompletableFuture<UserDetails> prior = users.asMap().putIfAbsent(username, future);
+        if (prior != null) {
+            try {
+                return prior.join();
+            } catch (CompletionException e) {
+                //처음 로딩한 요청이 던진 예외(UsernameNotFoundException, DataAccessException 등)를 그대로 던진다.
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            //null 로 완료되거나 예외로 끝난 항목은 캐시에서 자동으로 빠진다.
+            UserDetails userDetails = loader.apply(username).orElse(null);
+            future.complete(userDetails);
+            return userDetails;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(String username) {
+        invalidations.put(username, sequence.incrementAndGet());
+        users.synchronous().invalidate(username);
+        unknownUsernames.invalidate(username);
+    }
+}
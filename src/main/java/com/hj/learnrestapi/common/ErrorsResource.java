@@ -3,19 +3,17 @@ package com.hj.learnrestapi.common;
 import com.hj.learnrestapi.index.IndexController;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
-import org.springframework.hateoas.RepresentationModel;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.validation.Errors;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 public class ErrorsResource extends EntityModel<Errors> {
+    private static final String INDEX_PATH = Links.mappingPath(ReflectionUtils.findMethod(IndexController.class, "index"));
+
     public ErrorsResource(Errors content, Link... links) {
         super(content, List.of(links));
-        add(linkTo(methodOn(IndexController.class).index()).withRel("index"));
+        add(Link.of(Links.baseUri() + INDEX_PATH).withRel("index"));
     }
 
 }
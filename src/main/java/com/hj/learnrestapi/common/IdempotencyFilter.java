@@ -0,0 +1,229 @@
+package com.hj.learnrestapi.common;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * POST /api/events, POST /api/events/batch 의 Idempotency-Key 헤더 처리.
+ * 같은 사용자가 같은 키로 다시 보낸 요청에는 처음 응답(상태, Location, 본문)을 그대로 돌려주고 컨트롤러는 실행하지 않는다.
+ * 처음 요청이 아직 처리 중이면 끝날 때까지 기다렸다가 그 응답을 돌려준다.
+ * 같은 키에 본문이 다른 요청이 오면 처음 응답을 돌려주지 않고 422 로 거절한다.
+ * 5xx 나 예외로 끝난 응답은 저장하지 않으므로 재시도하면 다시 실행된다.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final Set<String> PATHS = Set.of("/api/events", "/api/events/batch");
+    private static final List<String> REPLAYED_HEADERS = List.of(HttpHeaders.LOCATION, HttpHeaders.ETAG);
+    //키, 헤더 등 본문 외 엔트리 크기 추정치
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final AsyncCache<String, StoredResponse> responses;
+    private final Duration waitTimeout;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public IdempotencyFilter(@Value("${learn-rest-api.idempotency.maximum-size:64MB}") DataSize maximumSize,
+                             @Value("${learn-rest-api.idempotency.time-to-live:24h}") Duration timeToLive,
+                             @Value("${learn-rest-api.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String key, StoredResponse response) -> response.body().length + ENTRY_OVERHEAD)
+                .expireAfterWrite(timeToLive)
+                .buildAsync();
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY) == null
+                || !PATHS.contains(urlPathHelper.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = storeKey(request);
+        CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request);
+        byte[] fingerprint = cachedBodyRequest.fingerprint();
+        while (true) {
+            CompletableFuture<StoredResponse> future = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> prior = responses.asMap().putIfAbsent(key, future);
+            if (prior == null) {
+                execute(cachedBodyRequest, fingerprint, response, filterChain, future);
+                return;
+            }
+
+            StoredResponse stored;
+            try {
+                stored = prior.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response.sendError(HttpStatus.CONFLICT.value(), "A request with the same Idempotency-Key is in progress");
+                return;
+            } catch (ExecutionException e) {
+                //처음 요청이 실패했으면 이 요청이 다시 실행한다. 실패한 future 가 캐시에서 빠지기 전에 다시 돌지 않도록 직접 뺀다.
+                responses.asMap().remove(key, prior);
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            }
+
+            if (stored == null) {
+                responses.asMap().remove(key, prior);
+                continue;
+            }
+            if (!MessageDigest.isEqual(stored.fingerprint(), fingerprint)) {
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "The Idempotency-Key was already used with a different request body");
+                return;
+            }
+            stored.writeTo(response);
+            return;
+        }
+    }
+
+    private void execute(HttpServletRequest request, byte[] fingerprint, HttpServletResponse response, FilterChain filterChain,
+                         CompletableFuture<StoredResponse> future) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } catch (ServletException | IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+
+        //null 로 완료하면 캐시에서 빠지고, 기다리던 요청은 다시 실행한다.
+        future.complete(responseWrapper.getStatus() < 500 ? StoredResponse.of(fingerprint, responseWrapper) : null);
+        responseWrapper.copyBodyToResponse();
+    }
+
+    //다른 사용자가 같은 키를 보내도 섞이지 않도록 사용자와 경로를 함께 키로 쓴다.
+    private String storeKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String principal = authentication == null ? "" : authentication.getName();
+        return principal + " " + urlPathHelper.getPathWithinApplication(request) + " " + request.getHeader(IDEMPOTENCY_KEY);
+    }
+
+    private record StoredResponse(byte[] fingerprint, int status, String contentType, List<String[]> headers, byte[] body) {
+        static StoredResponse of(byte[] fingerprint, ContentCachingResponseWrapper response) {
+            List<String[]> headers = REPLAYED_HEADERS.stream()
+                    .filter(name -> response.getHeader(name) != null)
+                    .map(name -> new String[]{name, response.getHeader(name)})
+                    .toList();
+            return new StoredResponse(fingerprint, response.getStatus(), response.getContentType(), headers, response.getContentAsByteArray());
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            headers.forEach(header -> response.setHeader(header[0], header[1]));
+            response.setHeader(IDEMPOTENT_REPLAYED, "true");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    //본문을 비교하려면 컨트롤러보다 먼저 읽어야 하므로 읽어 둔 본문을 다시 내주는 요청으로 감싼다.
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        byte[] fingerprint() {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(body);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                //본문은 이미 메모리에 있으므로 바로 읽을 수 있다고 알리고, 다 읽었으면 끝났다고 알린다.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return inputStream.read(b, off, len);
+                }
+            };
+        }
+    }
+}
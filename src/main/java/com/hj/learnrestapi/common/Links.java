@@ -0,0 +1,47 @@
+package com.hj.learnrestapi.common;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.lang.reflect.AnnotatedElement;
+
+/**
+ * linkTo() 대신 사용하는 링크 조립 도우미.
+ * 컨트롤러 매핑 경로는 클래스 로딩 시점에 한 번만 읽고, 요청의 base URI 는 요청당 한 번만 계산한다.
+ * 그 뒤의 링크 생성은 문자열 연결뿐이다.
+ */
+public final class Links {
+    private static final String BASE_URI_ATTRIBUTE = Links.class.getName() + ".BASE_URI";
+
+    private Links() {
+    }
+
+    //linkTo() 와 같은 기준(현재 서블릿 매핑)으로 base URI 를 만들고 요청 속성에 담아 둔다.
+    public static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+
+        Object cached = attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) {
+            return (String) cached;
+        }
+
+        String baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+        attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        return baseUri;
+    }
+
+    //@RequestMapping(@GetMapping 등 포함)에 선언된 첫 번째 경로.
+    public static String mappingPath(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        if (mapping == null || mapping.path().length == 0) {
+            return "";
+        }
+        return mapping.path()[0];
+    }
+}
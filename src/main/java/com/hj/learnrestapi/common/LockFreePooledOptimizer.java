@@ -0,0 +1,79 @@
+package com.hj.learnrestapi.common;
+
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.PooledOptimizer;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * pooled 방식 optimizer. DB 값(hi)을 한 번 읽으면 (hi - incrementSize, hi] 블록을 이 노드가 예약한다.
+ * PooledOptimizer 와 같은 범위를 쓰지만, 블록 안에서 ID 를 나눠 줄 때는 락 없이 getAndIncrement 만 한다.
+ * 블록을 다 쓴 경우에만 한 스레드가 다음 블록을 가져온다. 이때 DB 를 호출하므로 synchronized 대신
+ * ReentrantLock 을 써서 가상 스레드가 carrier 스레드에 고정되지 않게 한다.
+ * 블록 예약은 시퀀스 테이블의 조건부 update 로 이루어지므로 여러 노드가 같은 DB 를 써도 겹치지 않는다.
+ */
+public class LockFreePooledOptimizer extends PooledOptimizer {
+    private final Lock refillLock = new ReentrantLock();
+    private volatile Block block;
+    private volatile IntegralDataTypeHolder lastSourceValue;
+
+    public LockFreePooledOptimizer(Class<?> returnClass, int incrementSize) {
+        super(returnClass, incrementSize);
+    }
+
+    @Override
+    public Serializable generate(AccessCallback callback) {
+        while (true) {
+            Block current = this.block;
+            if (current != null) {
+                long value = current.next.getAndIncrement();
+                if (value <= current.hi) {
+                    return toReturnType(value);
+                }
+            }
+
+            refillLock.lock();
+            try {
+                //다른 스레드가 이미 새 블록을 가져왔으면 그대로 사용한다.
+                if (this.block == current) {
+                    IntegralDataTypeHolder sourceValue = callback.getNextValue();
+                    long hi = sourceValue.makeValue().longValue();
+                    this.lastSourceValue = sourceValue;
+                    this.block = new Block(Math.max(hi - getIncrementSize() + 1, 1), hi);
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public IntegralDataTypeHolder getLastSourceValue() {
+        return lastSourceValue;
+    }
+
+    private Serializable toReturnType(long value) {
+        Class<?> returnClass = getReturnClass();
+        if (returnClass == Integer.class || returnClass == int.class) {
+            return (int) value;
+        }
+        if (returnClass == Short.class || returnClass == short.class) {
+            return (short) value;
+        }
+        return value;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long hi;
+
+        private Block(long lo, long hi) {
+            this.next = new AtomicLong(lo);
+            this.hi = hi;
+        }
+    }
+}
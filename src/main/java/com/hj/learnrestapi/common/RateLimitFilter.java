@@ -0,0 +1,114 @@
+package com.hj.learnrestapi.common;
+
+import com.hj.learnrestapi.configs.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/** 요청에 클라이언트 IP 별, 인증된 계정별 토큰 버킷을 적용한다.
+ * IP 버킷은 토큰 인증 필터 앞에서 확인해서 잘못된 토큰으로 보낸 요청도 IP 제한에 걸린다.
+ * 계정 버킷은 {@link #accountFilter()} 를 인증 필터 뒤에 두어 토큰의 계정(sub)으로 나눈다. 계정 버킷에서 거절되면 IP 버킷에서 쓴 토큰을 돌려주므로,
+ * 두 버킷이 모두 허용할 때만 토큰이 줄어든다. 버킷이 비면 429 와 Retry-After(초)로 응답한다.
+ * 클라이언트 IP 는 getRemoteAddr() 이며, 프록시 뒤에서는 server.forward-headers-strategy 로 풀어준 값을 쓴다.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String IP_KEY_ATTRIBUTE = RateLimitFilter.class.getName() + ".ipKey";
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final AccountFilter accountFilter = new AccountFilter();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this(properties, new RateLimiter(properties.getIdleTimeout(), properties.getMaximumBuckets()));
+    }
+
+    RateLimitFilter(RateLimitProperties properties, RateLimiter rateLimiter) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+    }
+
+    //인증 필터 뒤에 두는 계정별 제한 필터.
+    public OncePerRequestFilter accountFilter() {
+        return accountFilter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !isApi(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean read = isRead(request);
+        String key = "ip:" + (read ? "read:" : "write:") + request.getRemoteAddr();
+        RateLimitProperties.Limit limit = limit(properties.getIp(), read);
+        long waitNanos = rateLimiter.tryAcquire(key, limit.getCapacity(), limit.getRefillPerSecond());
+        if (waitNanos > 0) {
+            tooManyRequests(response, waitNanos);
+            return;
+        }
+        request.setAttribute(IP_KEY_ATTRIBUTE, key);
+        filterChain.doFilter(request, response);
+    }
+
+    private class AccountFilter extends OncePerRequestFilter {
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !isApi(request);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            boolean read = isRead(request);
+            RateLimitProperties.Limit limit = limit(properties.getAccount(), read);
+            long waitNanos = rateLimiter.tryAcquire("account:" + (read ? "read:" : "write:") + authentication.getName(),
+                    limit.getCapacity(), limit.getRefillPerSecond());
+            if (waitNanos > 0) {
+                //처리하지 않는 요청이므로 IP 버킷에서 쓴 토큰은 돌려준다.
+                if (request.getAttribute(IP_KEY_ATTRIBUTE) instanceof String ipKey) {
+                    rateLimiter.release(ipKey, limit(properties.getIp(), read).getRefillPerSecond());
+                }
+                tooManyRequests(response, waitNanos);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private void tooManyRequests(HttpServletResponse response, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+
+    private RateLimitProperties.Limit limit(RateLimitProperties.Group group, boolean read) {
+        return read ? group.getRead() : group.getWrite();
+    }
+
+    private boolean isApi(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/api");
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+}
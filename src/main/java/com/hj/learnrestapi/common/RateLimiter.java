@@ -0,0 +1,80 @@
+package com.hj.learnrestapi.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 키별 토큰 버킷.
+ * 버킷은 Caffeine 캐시(내부적으로 스트라이프된 ConcurrentHashMap + 버퍼)에 두고, 일정 시간 쓰이지 않으면 버린다.
+ * 각 버킷은 GCRA(Generic Cell Rate Algorithm) 방식으로 "다음 토큰이 생기는 이론상 시각" 하나만 AtomicLong 에 저장하고 CAS 로 갱신하므로 락이 없다.
+ */
+public class RateLimiter {
+    private final Cache<String, Bucket> buckets;
+    private final LongSupplier nanoTime;
+
+    public RateLimiter(Duration idleTimeout, long maximumBuckets) {
+        this(idleTimeout, maximumBuckets, System::nanoTime);
+    }
+
+    RateLimiter(Duration idleTimeout, long maximumBuckets, LongSupplier nanoTime) {
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maximumBuckets)
+                .build();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * 토큰 하나를 쓴다.
+     * @return 허용되면 0, 거절되면 다음 토큰이 생길 때까지 남은 시간(ns)
+     */
+    public long tryAcquire(String key, long capacity, double refillPerSecond) {
+        return buckets.get(key, k -> new Bucket(nanoTime.getAsLong()))
+                .tryAcquire(nanoTime.getAsLong(), capacity, refillPerSecond);
+    }
+
+    /**
+     * tryAcquire 로 쓴 토큰 하나를 돌려준다. 다른 버킷에서 거절되어 요청을 처리하지 않을 때 쓴다.
+     */
+    public void release(String key, double refillPerSecond) {
+        Bucket bucket = buckets.getIfPresent(key);
+        if (bucket != null) {
+            bucket.release(refillPerSecond);
+        }
+    }
+
+    static class Bucket {
+        //이론상 다음 토큰이 생기는 시각(TAT). now 보다 과거면 버킷이 가득 찬 상태.
+        private final AtomicLong theoreticalArrivalTime;
+
+        Bucket(long now) {
+            this.theoreticalArrivalTime = new AtomicLong(now);
+        }
+
+        long tryAcquire(long now, long capacity, double refillPerSecond) {
+            long emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            long burstTolerance = emissionInterval * (capacity - 1);
+            while (true) {
+                long tat = theoreticalArrivalTime.get();
+                long start = tat - now > 0 ? tat : now;
+                long waitNanos = start - burstTolerance - now;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (theoreticalArrivalTime.compareAndSet(tat, start + emissionInterval)) {
+                    return 0;
+                }
+            }
+        }
+
+        void release(double refillPerSecond) {
+            long emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            theoreticalArrivalTime.addAndGet(-emissionInterval);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.hj.learnrestapi.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 복제본을 쓸 때 자기가 쓴 내용을 바로 다시 읽을 수 있게 한다.
+ * 변경 요청(GET, HEAD, OPTIONS 외)은 요청 전체를 primary 에서 처리한다. 수정 전에 읽는 현재 버전, 참가 좌석 수가 복제 지연으로 틀리지 않는다.
+ * 변경 요청이 성공하면 그 계정을 stickiness 동안 기억하고, 그동안 그 계정의 조회 요청도 primary 에서 읽는다.
+ * 기억은 인스턴스마다 따로 하므로, 인스턴스가 여러 개면 로드 밸런서가 계정별로 같은 인스턴스로 보내야 창이 지켜진다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration stickiness, long maximumWriters) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .maximumSize(maximumWriters)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String account = account();
+        boolean write = !isRead(request);
+        boolean primary = write || (account != null && recentWriters.getIfPresent(account) != null);
+
+        if (primary) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (primary) {
+                ReplicaRoutingDataSource.unpin();
+            }
+        }
+
+        //커밋된 뒤부터 창을 연다.
+        if (write && account != null && response.getStatus() < 400) {
+            recentWriters.put(account, Boolean.TRUE);
+        }
+    }
+
+    private String account() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+}
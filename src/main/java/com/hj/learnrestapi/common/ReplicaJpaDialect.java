@@ -0,0 +1,43 @@
+package com.hj.learnrestapi.common;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * readOnly 트랜잭션에서는 2차 캐시를 읽기만 하고 넣지 않는다(CacheMode.GET).
+ * readOnly 트랜잭션은 복제본에서 읽으므로, 복제가 늦으면 예전 행(예전 버전)이 캐시에 들어가서
+ * primary 에서 읽어야 하는 요청까지 오래된 엔티티를 보게 된다. 캐시는 primary 를 쓰는 트랜잭션만 채운다.
+ * open-in-view 로 세션이 다음 트랜잭션에도 쓰이므로 트랜잭션이 끝나면 원래 모드로 되돌린다.
+ */
+public class ReplicaJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReadOnlyTransactionData(transactionData, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+            readOnly.session().setCacheMode(readOnly.previousCacheMode());
+            super.cleanupTransaction(readOnly.transactionData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReadOnlyTransactionData(Object transactionData, Session session, CacheMode previousCacheMode) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.hj.learnrestapi.common;
+
+import com.hj.learnrestapi.configs.SqlAccountingProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/** 요청마다 SqlStatementStats 를 시작하고, 끝나면 지표를 남기고 예산을 검사한다.
+ * 응답 헤더는 본문을 쓰기 직전에 SqlAccountingResponseAdvice 가 붙인다. (여기서는 이미 응답이 커밋된 뒤다.)
+ */
+@Slf4j
+public class SqlAccountingFilter extends OncePerRequestFilter {
+    private final SqlAccountingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlAccountingFilter(SqlAccountingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith(request.getContextPath() + "/api");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.begin(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.end();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        //핸들러를 찾지 못한 요청(인증 실패 등)은 경로 패턴이 없다.
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String endpoint = request.getMethod() + " " + uri;
+
+        if (properties.isExpose()) {
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("SQL statements prepared per request")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+            DistributionSummary.builder("http.server.requests.sql.rows")
+                    .description("Entities loaded per request")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(stats.getRows());
+            Timer.builder("http.server.requests.sql.time")
+                    .description("JDBC execution time per request")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        int budget = properties.budgetOf(endpoint);
+        if (stats.getStatements() > budget) {
+            log.warn("{} ran {} SQL statements (budget {}), {} rows, {} ms in JDBC",
+                    endpoint, stats.getStatements(), budget, stats.getRows(), TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()));
+        }
+        stats.mostRepeated()
+                .filter(entry -> entry.getValue() >= properties.getRepeatedStatementThreshold())
+                .ifPresent(entry -> log.warn("{} ran the same SQL {} times, possible N+1: {}", endpoint, entry.getValue(), entry.getKey()));
+    }
+}
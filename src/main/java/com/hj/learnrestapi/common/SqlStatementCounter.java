@@ -0,0 +1,73 @@
+package com.hj.learnrestapi.common;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionEventListener;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate 에서 SqlStatementStats 를 채우는 훅 모음.
+ * 요청 밖(스케줄러, 기동 시 초기화 등)에서 실행된 SQL 은 현재 통계가 없으므로 세지 않는다.
+ */
+public final class SqlStatementCounter {
+
+    private SqlStatementCounter() {
+    }
+
+    //Hibernate 가 JDBC Statement 를 준비할 때마다 호출된다. batch 로 묶인 insert 는 한 번으로 센다.
+    public static class Inspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            SqlStatementStats.current().ifPresent(stats -> stats.statement(sql));
+            return sql;
+        }
+    }
+
+    //hibernate.session.events.auto 로 세션마다 만들어진다.
+    public static class JdbcTimeListener implements SessionEventListener {
+        private long executeStart;
+        private long batchStart;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            long elapsed = System.nanoTime() - executeStart;
+            SqlStatementStats.current().ifPresent(stats -> stats.jdbcTime(elapsed));
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batchStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            long elapsed = System.nanoTime() - batchStart;
+            SqlStatementStats.current().ifPresent(stats -> stats.jdbcTime(elapsed));
+        }
+    }
+
+    //결과 집합에서 엔티티 하나를 만들 때마다 한 행으로 센다. (2차 캐시에서 읽은 엔티티도 PostLoad 가 호출되므로 제외할 수 없다.)
+    public static class RowIntegrator implements Integrator, PostLoadEventListener {
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, this);
+        }
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            SqlStatementStats.current().ifPresent(SqlStatementStats::row);
+        }
+    }
+}
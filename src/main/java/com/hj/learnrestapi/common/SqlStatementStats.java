@@ -0,0 +1,63 @@
+package com.hj.learnrestapi.common;
+
+import jakarta.servlet.ServletRequest;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * HTTP 요청 하나가 실행한 SQL 문 수, 읽은 엔티티 수, JDBC 실행 시간.
+ * SqlAccountingFilter 가 요청 스레드에 걸어 두고, Hibernate 의 StatementInspector, 세션 이벤트, PostLoad 이벤트가 채운다.
+ * 요청 스레드 하나에서만 쓰므로 동기화하지 않는다.
+ */
+@Getter
+public class SqlStatementStats {
+    public static final String ATTRIBUTE = SqlStatementStats.class.getName();
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int rows;
+    private long jdbcNanos;
+    //N+1 을 찾기 위해 같은 SQL 이 몇 번 실행됐는지 센다. 바인드 파라미터는 ? 이므로 SQL 문자열이 같으면 같은 쿼리다.
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    static SqlStatementStats begin(ServletRequest request) {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        request.setAttribute(ATTRIBUTE, stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static Optional<SqlStatementStats> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static SqlStatementStats of(ServletRequest request) {
+        return (SqlStatementStats) request.getAttribute(ATTRIBUTE);
+    }
+
+    void statement(String sql) {
+        statements++;
+        statementCounts.merge(sql, 1, Integer::sum);
+    }
+
+    void row() {
+        rows++;
+    }
+
+    void jdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    //가장 많이 반복된 SQL
+    Optional<Map.Entry<String, Integer>> mostRepeated() {
+        return statementCounts.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+}
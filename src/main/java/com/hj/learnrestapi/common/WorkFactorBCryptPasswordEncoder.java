@@ -0,0 +1,31 @@
+package com.hj.learnrestapi.common;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 저장된 해시의 work factor 가 설정 값과 다르면(높아도, 낮아도) upgradeEncoding 이 true 를 돌려준다.
+ * 로그인에 성공했을 때 DaoAuthenticationProvider 가 설정 값으로 다시 인코딩해서 저장하므로, 로그인 한 번의 CPU 비용이 일정해진다.
+ * (BCryptPasswordEncoder 는 설정 값보다 낮은 해시만 다시 인코딩한다.)
+ */
+public class WorkFactorBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public WorkFactorBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -1,11 +1,10 @@
 package com.hj.learnrestapi.configs;
 
 import com.hj.learnrestapi.accounts.Account;
+import com.hj.learnrestapi.accounts.AccountRepository;
 import com.hj.learnrestapi.accounts.AccountRole;
 import com.hj.learnrestapi.accounts.AccountService;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.ApplicationArguments;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,28 +13,23 @@ import java.util.Set;
 
 @Configuration
 public class AppConfig {
+    public static final String SEED_EMAIL = "jwj@email.com";
 
+    //기본 계정을 만든다. 이미 있으면 건너뛴다.
+    //learn-rest-api.seed.enabled 는 실행할 때 읽으므로 AOT 로 빌드한 뒤에도 켜고 끌 수 있다.
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-
-    @Bean
-    public ApplicationRunner applicationRunner() {
-        return new ApplicationRunner() {
-            @Autowired
-            AccountService accountService;
-
-            @Override
-            public void run(ApplicationArguments args) throws Exception {
-                Account account = Account.builder()
-                        .email("jwj@email.com")
-                        .password("1234")
-                        .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
-                        .build();
-                accountService.saveAccount(account);
+    public ApplicationRunner applicationRunner(AccountService accountService, AccountRepository accountRepository,
+                                               @Value("${learn-rest-api.seed.enabled:true}") boolean seedEnabled) {
+        return args -> {
+            if (!seedEnabled || accountRepository.findByEmail(SEED_EMAIL).isPresent()) {
+                return;
             }
+            Account account = Account.builder()
+                    .email(SEED_EMAIL)
+                    .password("1234")
+                    .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
+                    .build();
+            accountService.saveAccount(account);
         };
-
     }
 }
@@ -0,0 +1,53 @@
+package com.hj.learnrestapi.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * /api/** 요청 속도 제한 설정.
+ * 클라이언트 IP 별, 인증된 계정별로 조회(GET, HEAD, OPTIONS)와 변경(그 외) 버킷을 따로 둔다.
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "learn-rest-api.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    //이 시간 동안 요청이 없는 버킷은 버린다. 다시 오면 가득 찬 버킷으로 시작한다.
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private long maximumBuckets = 100_000;
+
+    private Group account = new Group(new Limit(200, 100), new Limit(40, 20));
+    private Group ip = new Group(new Limit(400, 200), new Limit(80, 40));
+
+    @Getter @Setter
+    public static class Group {
+        private Limit read;
+        private Limit write;
+
+        public Group() {
+        }
+
+        public Group(Limit read, Limit write) {
+            this.read = read;
+            this.write = write;
+        }
+    }
+
+    //capacity 만큼 한 번에 몰아서 보낼 수 있고, 초당 refill-per-second 개씩 다시 채워진다.
+    @Getter @Setter
+    public static class Limit {
+        private long capacity;
+        private double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
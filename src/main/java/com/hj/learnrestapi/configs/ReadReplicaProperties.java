@@ -0,0 +1,31 @@
+package com.hj.learnrestapi.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 복제본 설정.
+ * 켜면 spring.datasource 가 primary 가 되고, readOnly 트랜잭션은 replicas 중 하나로 돌아가며 보낸다.
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "learn-rest-api.read-replica")
+public class ReadReplicaProperties {
+    private boolean enabled = false;
+    //계정이 쓰기 요청을 한 뒤 이 시간 동안은 그 계정의 조회도 primary 에서 읽는다. 복제 지연보다 길게 잡는다.
+    private Duration stickiness = Duration.ofSeconds(5);
+    private long maximumWriters = 100_000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
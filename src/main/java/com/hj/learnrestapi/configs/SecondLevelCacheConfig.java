@@ -0,0 +1,56 @@
+package com.hj.learnrestapi.configs;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Event, Account 엔티티와 Account.roles 컬렉션용 2차 캐시.
+ * 캐시 저장소는 Caffeine(JCache)이고, 리전마다 크기/TTL 기반으로 축출한다.
+ * READ_WRITE 전략이라 createEvent, modifyEvent, saveAccount 처럼 JPA 를 거치는 쓰기는
+ * 트랜잭션 커밋 시점에 해당 엔트리를 soft lock 후 갱신하므로 오래된 값이 읽히지 않는다.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+    public static final String EVENT_REGION = "event";
+    public static final String ACCOUNT_REGION = "account";
+    public static final String ACCOUNT_ROLES_REGION = "account.roles";
+
+    private static final List<String> REGIONS = List.of(EVENT_REGION, ACCOUNT_REGION, ACCOUNT_ROLES_REGION);
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        REGIONS.forEach(region -> {
+            //테스트처럼 여러 컨텍스트가 같은 CacheManager 를 공유하는 경우 이미 만들어진 캐시를 재사용한다.
+            if (cacheManager.getCache(region) == null) {
+                SecondLevelCacheProperties.Region regionProperties = properties.getRegions()
+                        .getOrDefault(region, new SecondLevelCacheProperties.Region());
+                cacheManager.createCache(region, cacheConfiguration(regionProperties, properties.isStatisticsEnabled()));
+            }
+        });
+
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put("hibernate.generate_statistics", properties.isStatisticsEnabled());
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> cacheConfiguration(SecondLevelCacheProperties.Region region, boolean statisticsEnabled) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+        configuration.setStatisticsEnabled(statisticsEnabled);
+        return configuration;
+    }
+}
@@ -0,0 +1,27 @@
+package com.hj.learnrestapi.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate 2차 캐시 설정. 리전(region) 이름별로 최대 엔트리 수와 TTL 을 지정한다.
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "learn-rest-api.second-level-cache")
+public class SecondLevelCacheProperties {
+    //JCache 통계(JMX CacheStatistics MBean)와 Hibernate 통계를 켠다.
+    private boolean statisticsEnabled = true;
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter @Setter
+    public static class Region {
+        private long maximumSize = 10_000;
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+}
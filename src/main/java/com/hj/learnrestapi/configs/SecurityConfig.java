@@ -1,32 +1,106 @@
 package com.hj.learnrestapi.configs;
 
-import com.hj.learnrestapi.accounts.AccountService;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.hj.learnrestapi.common.IdempotencyFilter;
+import com.hj.learnrestapi.common.RateLimitFilter;
+import com.hj.learnrestapi.common.ReadYourWritesFilter;
+import com.hj.learnrestapi.common.WorkFactorBCryptPasswordEncoder;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.annotation.web.configuration.WebSecurityConfiguration;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.LdapShaPasswordEncoder;
+import org.springframework.security.crypto.password.Md4PasswordEncoder;
+import org.springframework.security.crypto.password.MessageDigestPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.StandardPasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.util.StringUtils;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties({TokenProperties.class, RateLimitProperties.class, ReadReplicaProperties.class})
 public class SecurityConfig{
+    public static final String TOKEN_PATH = "/api/token";
+    //토큰에 담는 권한 클레임. 값은 ROLE_ 접두어까지 포함한 권한 이름 그대로.
+    public static final String AUTHORITIES_CLAIM = "authorities";
+    private static final String MANAGEMENT_ROLE = "METRICS";
+
+    //운영 엔드포인트(/actuator/**)는 /api/** 와 다른 계정, 다른 인증 방식(Basic)으로 보호한다.
+    //스크랩 계정은 AccountService 가 아니라 설정 값으로만 만든다.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+                                                             @Value("${learn-rest-api.management.username:prometheus}") String username,
+                                                             @Value("${learn-rest-api.management.password:}") String password) throws Exception {
+        InMemoryUserDetailsManager managementUsers = new InMemoryUserDetailsManager();
+        if (StringUtils.hasText(password)) {
+            managementUsers.createUser(User.withUsername(username)
+                    .password(passwordEncoder.encode(password))
+                    .roles(MANAGEMENT_ROLE)
+                    .build());
+        }
+        DaoAuthenticationProvider managementAuthenticationProvider = new DaoAuthenticationProvider();
+        managementAuthenticationProvider.setUserDetailsService(managementUsers);
+        managementAuthenticationProvider.setPasswordEncoder(passwordEncoder);
 
+        http.securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(new ProviderManager(managementAuthenticationProvider))
+                .httpBasic(Customizer.withDefaults())
+                .authorizeHttpRequests(authorization -> authorization
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .anyRequest().hasRole(MANAGEMENT_ROLE));
+        return http.build();
+    }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimitProperties rateLimitProperties,
+                                                   ReadReplicaProperties readReplicaProperties,
+                                                   IdempotencyFilter idempotencyFilter) throws Exception {
 
         //필터 체인을 타면서 검증.
         //http.authorizeHttpRequests(authorization -> authorization
@@ -34,16 +108,44 @@ public class SecurityConfig{
         //        .anyRequest().authenticated()
         //);
 
+        //세션을 만들지 않는다. 로그인은 /api/token 에서 토큰을 받고, 이후 요청은 Authorization: Bearer 헤더의 서명만 검증한다(DB 조회 없음).
+        //쿠키로 인증하지 않으므로 CSRF 보호도 필요 없다.
         http.anonymous()
                 .and()
-                .formLogin()
-                .and()
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .oauth2ResourceServer(resourceServer -> resourceServer
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
                 .authorizeHttpRequests()
+                .requestMatchers(HttpMethod.POST, TOKEN_PATH).permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/**").authenticated()
                 .anyRequest().authenticated();
+
+        //IP 제한은 토큰 검증 앞에 두어 잘못된 토큰도 막고, 계정 제한은 토큰 검증 뒤에 두어야 계정별 버킷을 쓸 수 있다.
+        //빈으로 등록하지 않아서 서블릿 필터로 한 번 더 등록되지 않는다.
+        if (rateLimitProperties.isEnabled()) {
+            RateLimitFilter rateLimitFilter = new RateLimitFilter(rateLimitProperties);
+            http.addFilterBefore(rateLimitFilter, BearerTokenAuthenticationFilter.class);
+            http.addFilterAfter(rateLimitFilter.accountFilter(), BearerTokenAuthenticationFilter.class);
+        }
+        //인가까지 통과한 요청만 저장, 재사용한다. 사용자별로 키를 나누므로 인증 뒤에 있어야 한다.
+        http.addFilterAfter(idempotencyFilter, AuthorizationFilter.class);
+        //복제본을 쓸 때 쓰기 요청과, 방금 쓴 계정의 조회는 primary 로 보낸다. 계정을 알아야 하므로 인증 뒤에 둔다.
+        if (readReplicaProperties.isEnabled()) {
+            http.addFilterAfter(new ReadYourWritesFilter(readReplicaProperties.getStickiness(), readReplicaProperties.getMaximumWriters()),
+                    BearerTokenAuthenticationFilter.class);
+        }
         return http.build();
     }
 
+    //IdempotencyFilter 는 보안 필터 체인 안에서만 실행한다. 서블릿 필터로 따로 등록되지 않게 한다.
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyFilter idempotencyFilter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(idempotencyFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     //필터 체인을 타지 않고 제외.
     @Bean
     public WebSecurityCustomizer webSecurityCustomizer(){
@@ -52,18 +154,79 @@ public class SecurityConfig{
                 .requestMatchers("/docs/index.html");
     }
 
+    //저장 형식은 그대로 {bcrypt}... 이고, work factor 만 설정으로 정한다.
+    //PasswordEncoderFactories 의 기본 인코더 목록을 그대로 두고 bcrypt 만 바꾼다. {noop}, {pbkdf2} 같은 기존 해시도 로그인되고, 로그인하면 bcrypt 로 다시 저장된다.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    @SuppressWarnings("deprecation")
+    public PasswordEncoder passwordEncoder(@Value("${learn-rest-api.login.bcrypt-strength:10}") int bcryptStrength) {
+        String encodingId = "bcrypt";
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(encodingId, new WorkFactorBCryptPasswordEncoder(bcryptStrength));
+        encoders.put("ldap", new LdapShaPasswordEncoder());
+        encoders.put("MD4", new Md4PasswordEncoder());
+        encoders.put("MD5", new MessageDigestPasswordEncoder("MD5"));
+        encoders.put("noop", NoOpPasswordEncoder.getInstance());
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_5());
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put("scrypt", SCryptPasswordEncoder.defaultsForSpringSecurity_v4_1());
+        encoders.put("scrypt@SpringSecurity_v5_8", SCryptPasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put("SHA-1", new MessageDigestPasswordEncoder("SHA-1"));
+        encoders.put("SHA-256", new MessageDigestPasswordEncoder("SHA-256"));
+        encoders.put("sha256", new StandardPasswordEncoder());
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_2());
+        encoders.put("argon2@SpringSecurity_v5_8", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        return new DelegatingPasswordEncoder(encodingId, encoders);
     }
 
+    //로그인(/api/token) 시 비밀번호 검증에만 쓴다.
+    //로그인에 성공했는데 저장된 해시의 work factor 가 설정과 다르면 UserDetailsPasswordService 로 다시 인코딩해서 저장한다.
     @Bean
-    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService,
+                                                       UserDetailsPasswordService userDetailsPasswordService,
+                                                       PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        daoAuthenticationProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
 
         return new ProviderManager(daoAuthenticationProvider);
     }
 
+    @Bean
+    public SecretKey tokenSigningKey(TokenProperties tokenProperties) {
+        byte[] secret;
+        if (StringUtils.hasText(tokenProperties.getSecret())) {
+            secret = Base64.getDecoder().decode(tokenProperties.getSecret());
+        } else {
+            log.warn("learn-rest-api.token.secret is not set. Issued tokens are only valid on this node until restart.");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        }
+        return new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey tokenSigningKey, TokenProperties tokenProperties) {
+        NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(tokenSigningKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(tokenProperties.getIssuer()));
+        return jwtDecoder;
+    }
+
+    private JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthoritiesClaimName(AUTHORITIES_CLAIM);
+        authoritiesConverter.setAuthorityPrefix("");
+
+        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        return jwtAuthenticationConverter;
+    }
+
 }
@@ -0,0 +1,47 @@
+package com.hj.learnrestapi.configs;
+
+import com.hj.learnrestapi.common.SqlAccountingFilter;
+import com.hj.learnrestapi.common.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 요청별 SQL 집계. Hibernate 훅(SqlStatementCounter)을 등록하고, 보안 필터보다 먼저 SqlAccountingFilter 를 건다.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlAccountingProperties.class)
+public class SqlAccountingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlAccountingCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter.Inspector());
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatementCounter.JdbcTimeListener.class.getName());
+            hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new SqlStatementCounter.RowIntegrator()));
+        };
+    }
+
+    @Bean
+    public SqlAccountingFilter sqlAccountingFilter(SqlAccountingProperties properties, MeterRegistry meterRegistry) {
+        return new SqlAccountingFilter(properties, meterRegistry);
+    }
+
+    //인증 과정에서 실행되는 SQL 도 세도록 보안 필터 체인보다 앞에 둔다.
+    @Bean
+    public FilterRegistrationBean<SqlAccountingFilter> sqlAccountingFilterRegistration(SqlAccountingFilter sqlAccountingFilter) {
+        FilterRegistrationBean<SqlAccountingFilter> registration = new FilterRegistrationBean<>(sqlAccountingFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hj.learnrestapi.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 요청별 SQL 집계 설정.
+ * budgets 의 키는 "HTTP 메소드 + 핸들러 경로 패턴" 이다. 예) "GET /api/events/{id}"
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "learn-rest-api.sql-accounting")
+public class SqlAccountingProperties {
+    //요청별로 SQL 을 세고, 예산을 넘으면 경고 로그를 남긴다.
+    private boolean enabled = true;
+    //집계 값을 응답 헤더(X-Sql-*)와 지표로 내보낸다. 운영에서는 끈다.
+    private boolean expose = true;
+    private int defaultBudget = 10;
+    private Map<String, Integer> budgets = new LinkedHashMap<>();
+    //요청 하나에서 같은 SQL 이 이 횟수 이상 실행되면 N+1 로 의심한다.
+    private int repeatedStatementThreshold = 5;
+
+    public int budgetOf(String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultBudget);
+    }
+}
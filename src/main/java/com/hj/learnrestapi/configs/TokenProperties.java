@@ -0,0 +1,20 @@
+package com.hj.learnrestapi.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 로그인 시 발급하는 서명 토큰(JWT, HS256) 설정.
+ * 모든 노드가 같은 secret 을 써야 어느 노드에서든 토큰을 검증할 수 있다.
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "learn-rest-api.token")
+public class TokenProperties {
+    //base64 로 인코딩한 32바이트 이상의 키. 비어 있으면 기동할 때마다 새로 만든다(이 노드에서만 유효).
+    private String secret;
+    private String issuer = "learn-rest-api";
+    private Duration timeToLive = Duration.ofHours(1);
+}
@@ -0,0 +1,11 @@
+package com.hj.learnrestapi.enrollments;
+
+/**
+ * 메모리에서는 처음 보는 신청이지만 DB 의 (event_id, email) 유니크 키에 걸려 저장하지 못했을 때 던진다.
+ * 다른 인스턴스가 같은 신청을 먼저 저장한 경우다. 좌석을 돌려주고 409 로 응답한다.
+ */
+class AlreadyEnrolledException extends RuntimeException {
+    AlreadyEnrolledException(Long eventId, Throwable cause) {
+        super("Already enrolled in event " + eventId, cause);
+    }
+}
@@ -0,0 +1,41 @@
+package com.hj.learnrestapi.enrollments;
+
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.hj.learnrestapi.common.BlockIdGenerator;
+import com.hj.learnrestapi.events.Event;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+@Builder
+@Entity
+@Table(uniqueConstraints = {
+        //한 사람이 같은 이벤트에 두 번 참가할 수 없다. 기동 시 좌석 수를 세는 조회도 이 인덱스를 쓴다.
+        @UniqueConstraint(name = "uk_enrollment_event_email", columnNames = {"event_id", "email"})
+})
+public class Enrollment {
+
+    @Id @GeneratedValue(generator = "enrollment_id")
+    @GenericGenerator(name = "enrollment_id", type = BlockIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "enrollment_seq"))
+    private Long id;
+    //이벤트 id 만 내보낸다. 저장할 때도 프록시(getReferenceById)만 쓰므로 이벤트를 조회하지 않는다.
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+    @JsonIdentityReference(alwaysAsId = true)
+    private Event event;
+    @Column(nullable = false)
+    private String email;
+    private LocalDateTime enrolledAt;
+}
@@ -0,0 +1,66 @@
+package com.hj.learnrestapi.enrollments;
+
+import com.hj.learnrestapi.common.ErrorsResource;
+import com.hj.learnrestapi.events.EventLinks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RequiredArgsConstructor
+@Controller
+@RequestMapping(value = "/api/events/{eventId}/enrollments", produces = MediaTypes.HAL_JSON_VALUE)
+public class EnrollmentController {
+    private static final Link PROFILE_CREATED = Link.of("/docs/index.html#resources-enrollments-create").withRel("profile");
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final EnrollmentService enrollmentService;
+
+    //로그인한 사용자(토큰의 이메일)로 참가 신청한다. 저장이 커밋될 때까지 요청 스레드를 붙잡지 않도록 비동기로 응답한다.
+    @PostMapping
+    public CompletableFuture<ResponseEntity<?>> enroll(@PathVariable Long eventId, Principal principal) {
+        //응답은 저장 스레드에서 만들어지므로 요청 정보가 필요한 링크는 미리 만든다.
+        Link eventLink = Link.of(EventLinks.eventHref(eventId), "event");
+        return enrollmentService.enroll(eventId, principal.getName())
+                .<ResponseEntity<?>>thenApply(result -> switch (result.status()) {
+                    case ENROLLED -> ResponseEntity.status(HttpStatus.CREATED)
+                            .body(new EnrollmentResource(result.enrollment(), eventLink, PROFILE_CREATED));
+                    case EVENT_NOT_FOUND -> ResponseEntity.notFound().build();
+                    case NOT_OPEN -> conflict("enrollmentNotOpen", "Enrollment is not open");
+                    case SOLD_OUT -> conflict("soldOut", "No seats left");
+                    case ALREADY_ENROLLED -> conflict("alreadyEnrolled", "Already enrolled in this event");
+                })
+                .exceptionally(this::enrollFailed);
+    }
+
+    private ResponseEntity<?> enrollFailed(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        //저장 대기열이 가득 찬 경우. 좌석은 이미 돌려줬으므로 다시 시도하면 된다.
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        throw throwable instanceof CompletionException completionException ? completionException : new CompletionException(cause);
+    }
+
+    private ResponseEntity<ErrorsResource> conflict(String code, String message) {
+        Errors errors = new MapBindingResult(new HashMap<>(), "enrollment");
+        errors.reject(code, message);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorsResource(errors));
+    }
+}
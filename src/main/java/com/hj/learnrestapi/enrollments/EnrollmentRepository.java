@@ -0,0 +1,16 @@
+package com.hj.learnrestapi.enrollments;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+
+    //좌석 상태를 처음 만들 때 한 번만 쓴다.
+    @Query("select e.email from Enrollment e where e.event.id = :eventId")
+    List<String> findEmailsByEventId(@Param("eventId") Long eventId);
+
+    long countByEventId(Long eventId);
+}
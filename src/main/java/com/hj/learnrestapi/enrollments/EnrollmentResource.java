@@ -0,0 +1,19 @@
+package com.hj.learnrestapi.enrollments;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+
+public class EnrollmentResource extends RepresentationModel {
+    @JsonUnwrapped
+    private Enrollment enrollment;
+
+    public EnrollmentResource(Enrollment enrollment, Link... links) {
+        this.enrollment = enrollment;
+        add(links);
+    }
+
+    public Enrollment getEnrollment() {
+        return this.enrollment;
+    }
+}
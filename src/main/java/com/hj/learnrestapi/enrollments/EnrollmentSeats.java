@@ -0,0 +1,194 @@
+package com.hj.learnrestapi.enrollments;
+
+import com.hj.learnrestapi.events.Event;
+import com.hj.learnrestapi.events.EventRepository;
+import com.hj.learnrestapi.events.EventSchedule;
+import com.hj.learnrestapi.events.EventStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이벤트별 참가 좌석 카운터.
+ * 좌석 예약은 이벤트마다 AtomicInteger 하나를 CAS 로 올리는 것으로 끝나므로 DB 행 락을 잡지 않는다.
+ * 처음 쓰는 이벤트는 DB 의 참가 목록으로 상태를 만들고, 그 다음부터는 메모리만 본다.
+ * 이 카운터가 좌석 수의 기준이므로 한 이벤트의 참가 요청은 한 인스턴스가 처리해야 한다.
+ * 상태가 BEGAN_ENROLLMENT 이고 [beginEnrollmentDateTime, closeEnrollmentDateTime) 안일 때만 예약한다.
+ * 신청이 마감된 이벤트는 맵에서 빼므로 메모리는 신청을 받는 이벤트 수만큼만 쓴다.
+ * 다른 인스턴스가 같은 이벤트의 좌석을 팔 수 있으므로 EnrollmentWriter 가 DB 에서 한 번 더 상한을 확인한다.
+ */
+@RequiredArgsConstructor
+@Component
+public class EnrollmentSeats {
+    private final EventRepository eventRepository;
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final ConcurrentMap<Long, CompletableFuture<Seats>> seats = new ConcurrentHashMap<>();
+
+    public enum Reservation {
+        RESERVED, NOT_OPEN, SOLD_OUT, ALREADY_ENROLLED
+    }
+
+    /**
+     * @return 이벤트가 없으면 empty
+     */
+    public Optional<Seats> of(Long eventId) {
+        //같은 이벤트를 동시에 처음 요청해도 한 번만 로딩한다. 로딩은 맵의 락 밖에서 하므로 가상 스레드를 고정하지 않는다.
+        CompletableFuture<Seats> future = new CompletableFuture<>();
+        CompletableFuture<Seats> prior = seats.putIfAbsent(eventId, future);
+        if (prior != null) {
+            return Optional.ofNullable(prior.join());
+        }
+
+        try {
+            Seats loaded = eventRepository.findById(eventId)
+                    .map(this::load)
+                    .orElse(null);
+            if (loaded == null || loaded.window.isClosed(LocalDateTime.now())) {
+                //없는 id 나 마감된 이벤트로 맵이 커지지 않도록 남기지 않는다.
+                seats.remove(eventId, future);
+            }
+            future.complete(loaded);
+            return Optional.ofNullable(loaded);
+        } catch (RuntimeException e) {
+            seats.remove(eventId, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    //modifyEvent 로 참가 인원 제한이나 신청 기간이 바뀌면 이미 예약된 좌석은 그대로 두고 상한과 기간만 바꾼다.
+    public void refresh(Event event) {
+        loaded(event.getId()).ifPresent(loaded -> {
+            loaded.limit = event.getLimitOfEnrollment();
+            loaded.window = Window.of(event);
+        });
+        evictIfClosed(event.getId());
+    }
+
+    //EventLifecycleScheduler 가 상태를 바꾼 뒤 호출한다.
+    public void refresh(EventSchedule event) {
+        loaded(event.getId()).ifPresent(loaded -> loaded.window = Window.of(event));
+        evictIfClosed(event.getId());
+    }
+
+    //마감된 이벤트의 좌석과 이메일 목록을 버린다. 마감 뒤에 오는 신청은 DB 에서 상태를 읽어 바로 거절한다.
+    private void evictIfClosed(Long eventId) {
+        CompletableFuture<Seats> future = seats.get(eventId);
+        Seats loaded = future == null ? null : completed(future);
+        if (loaded != null && loaded.window.isClosed(LocalDateTime.now())) {
+            seats.remove(eventId, future);
+        }
+    }
+
+    //다른 요청이 아직 DB 에서 읽는 중이면 기다리지 않는다. 기다리면 modifyEvent 가 그 로딩에 묶인다.
+    //로딩 중인 값은 바뀌기 전 이벤트를 읽었을 수 있으므로 맵에서 빼서, 다음 요청이 다시 로딩하게 한다.
+    private Optional<Seats> loaded(Long eventId) {
+        CompletableFuture<Seats> future = seats.get(eventId);
+        if (future == null) {
+            return Optional.empty();
+        }
+        if (!future.isDone()) {
+            seats.remove(eventId, future);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(completed(future));
+    }
+
+    //로딩이 끝나지 않았거나 실패했으면 null.
+    private static Seats completed(CompletableFuture<Seats> future) {
+        try {
+            return future.getNow(null);
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    private Seats load(Event event) {
+        Seats loaded = new Seats(event.getLimitOfEnrollment(), Window.of(event));
+        if (loaded.window.isClosed(LocalDateTime.now())) {
+            return loaded;
+        }
+        enrollmentRepository.findEmailsByEventId(event.getId()).forEach(email -> {
+            loaded.emails.add(email);
+            loaded.taken.incrementAndGet();
+        });
+        return loaded;
+    }
+
+    //신청을 받는 상태와 기간. 함께 바뀌므로 한 번에 교체한다.
+    private record Window(EventStatus eventStatus, LocalDateTime begin, LocalDateTime close) {
+        static Window of(Event event) {
+            return new Window(event.getEventStatus(), event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime());
+        }
+
+        static Window of(EventSchedule event) {
+            return new Window(event.getEventStatus(), event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime());
+        }
+
+        //다시 열리려면 modifyEvent 로 날짜를 바꿔야 한다.
+        boolean isClosed(LocalDateTime now) {
+            return eventStatus == EventStatus.CLOSED_ENROLLMENT || (close != null && !now.isBefore(close));
+        }
+
+        boolean isOpen(LocalDateTime now) {
+            return eventStatus == EventStatus.BEGAN_ENROLLMENT
+                    && (begin == null || !now.isBefore(begin))
+                    && (close == null || now.isBefore(close));
+        }
+    }
+
+    public static class Seats {
+        private volatile int limit;
+        private volatile Window window;
+        private final AtomicInteger taken = new AtomicInteger();
+        private final Set<String> emails = ConcurrentHashMap.newKeySet();
+
+        Seats(int limit, Window window) {
+            this.limit = limit;
+            this.window = window;
+        }
+
+        public Reservation reserve(String email) {
+            if (!window.isOpen(LocalDateTime.now())) {
+                return Reservation.NOT_OPEN;
+            }
+            if (!emails.add(email)) {
+                return Reservation.ALREADY_ENROLLED;
+            }
+            while (true) {
+                int current = taken.get();
+                if (current >= limit) {
+                    emails.remove(email);
+                    return Reservation.SOLD_OUT;
+                }
+                if (taken.compareAndSet(current, current + 1)) {
+                    return Reservation.RESERVED;
+                }
+            }
+        }
+
+        //예약했지만 저장하지 못한 좌석을 돌려준다.
+        public void release(String email) {
+            taken.decrementAndGet();
+            emails.remove(email);
+        }
+
+        public int getTaken() {
+            return taken.get();
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.hj.learnrestapi.enrollments;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 이벤트 참가 신청.
+ * 좌석은 EnrollmentSeats 에서 메모리로 예약하고, 예약에 성공한 신청만 EnrollmentWriter 가 모아서 저장한다.
+ * 저장에 실패하면 좌석을 돌려준다. DB 의 참가 수 상한에 걸려 저장하지 못한 신청은 SOLD_OUT, 유니크 키에 걸린 신청은 ALREADY_ENROLLED 가 된다.
+ */
+@RequiredArgsConstructor
+@Service
+public class EnrollmentService {
+    private final EnrollmentSeats enrollmentSeats;
+    private final EnrollmentWriter enrollmentWriter;
+
+    public enum Status {
+        ENROLLED, EVENT_NOT_FOUND, NOT_OPEN, SOLD_OUT, ALREADY_ENROLLED
+    }
+
+    public record Result(Status status, Enrollment enrollment) {
+        static Result of(Status status) {
+            return new Result(status, null);
+        }
+    }
+
+    /**
+     * @return 좌석을 예약하지 못했으면 바로 완료된 future, 예약했으면 저장이 커밋될 때 완료되는 future.
+     *         신청 대기열이 가득 찼거나 저장에 실패하면 예외로 완료된다.
+     */
+    public CompletableFuture<Result> enroll(Long eventId, String email) {
+        Optional<EnrollmentSeats.Seats> optionalSeats = enrollmentSeats.of(eventId);
+        if (optionalSeats.isEmpty()) {
+            return CompletableFuture.completedFuture(Result.of(Status.EVENT_NOT_FOUND));
+        }
+
+        EnrollmentSeats.Seats seats = optionalSeats.get();
+        switch (seats.reserve(email)) {
+            case NOT_OPEN:
+                return CompletableFuture.completedFuture(Result.of(Status.NOT_OPEN));
+            case SOLD_OUT:
+                return CompletableFuture.completedFuture(Result.of(Status.SOLD_OUT));
+            case ALREADY_ENROLLED:
+                return CompletableFuture.completedFuture(Result.of(Status.ALREADY_ENROLLED));
+            default:
+                break;
+        }
+
+        return enrollmentWriter.submit(eventId, email)
+                .handle((enrollment, e) -> {
+                    if (e == null) {
+                        return new Result(Status.ENROLLED, enrollment);
+                    }
+                    seats.release(email);
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof SoldOutException) {
+                        return Result.of(Status.SOLD_OUT);
+                    }
+                    if (cause instanceof AlreadyEnrolledException) {
+                        return Result.of(Status.ALREADY_ENROLLED);
+                    }
+                    throw e instanceof CompletionException completionException ? completionException : new CompletionException(cause);
+                });
+    }
+}
@@ -0,0 +1,154 @@
+package com.hj.learnrestapi.enrollments;
+
+import com.hj.learnrestapi.events.EventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 좌석을 예약한 참가 신청을 모아서 한 트랜잭션에 JDBC batch insert 로 저장한다(group commit).
+ * 앞 배치를 커밋하는 동안 들어온 신청이 다음 배치가 되므로, 몰릴수록 트랜잭션 하나에 더 많이 담긴다.
+ * 신청한 쪽은 돌려받은 future 로 자기 신청이 커밋될 때까지 기다린다.
+ * 같은 트랜잭션에서 이벤트마다 event.enrolled 를 조건부 UPDATE 한 번으로 올려서, 인스턴스가 여럿이어도 상한을 넘겨 저장하지 않는다.
+ */
+@Slf4j
+@Component
+public class EnrollmentWriter {
+    private final EnrollmentRepository enrollmentRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingEnrollment> queue;
+    private final int batchSize;
+    private volatile boolean running;
+    private Thread worker;
+
+    public EnrollmentWriter(EnrollmentRepository enrollmentRepository, EventRepository eventRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${learn-rest-api.enrollment.queue-capacity:10000}") int queueCapacity,
+                            @Value("${learn-rest-api.enrollment.batch-size:500}") int batchSize) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    public CompletableFuture<Enrollment> submit(Long eventId, String email) {
+        PendingEnrollment pending = new PendingEnrollment(eventId, email, LocalDateTime.now(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Enrollment queue is full"));
+        }
+        return pending.result();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("enrollment-writer").daemon().start(this::run);
+    }
+
+    //남은 신청을 모두 저장한 뒤 끝낸다.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void run() {
+        List<PendingEnrollment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEnrollment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Enrollment writer failed", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingEnrollment> batch) {
+        List<PendingEnrollment> accepted = new ArrayList<>(batch.size());
+        List<PendingEnrollment> overLimit = new ArrayList<>();
+        List<Enrollment> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                batch.stream()
+                        .collect(Collectors.groupingBy(PendingEnrollment::eventId, LinkedHashMap::new, Collectors.toList()))
+                        .forEach((eventId, pendings) -> {
+                            if (eventRepository.addEnrolled(eventId, pendings.size()) == 1) {
+                                accepted.addAll(pendings);
+                            } else {
+                                overLimit.addAll(pendings);
+                            }
+                        });
+                return enrollmentRepository.saveAll(accepted.stream()
+                        .map(this::toEnrollment)
+                        .toList());
+            });
+        } catch (RuntimeException e) {
+            //배치 전체가 롤백되었으므로 하나씩 다시 저장해서 실패한 신청만 골라낸다.
+            log.warn("Enrollment batch of {} failed, retrying one by one", batch.size(), e);
+            batch.forEach(this::writeOne);
+            return;
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).result().complete(saved.get(i));
+        }
+        //상한에 걸린 이벤트는 남은 좌석만큼은 저장할 수 있으므로 하나씩 다시 시도한다.
+        overLimit.forEach(this::writeOne);
+    }
+
+    private void writeOne(PendingEnrollment pending) {
+        try {
+            pending.result().complete(transactionTemplate.execute(status -> {
+                if (eventRepository.addEnrolled(pending.eventId(), 1) == 0) {
+                    throw new SoldOutException(pending.eventId());
+                }
+                return enrollmentRepository.save(toEnrollment(pending));
+            }));
+        } catch (DataIntegrityViolationException e) {
+            //(event_id, email) 유니크 키에 걸렸다. 다른 인스턴스가 같은 신청을 먼저 저장한 경우다.
+            pending.result().completeExceptionally(new AlreadyEnrolledException(pending.eventId(), e));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private Enrollment toEnrollment(PendingEnrollment pending) {
+        return Enrollment.builder()
+                .event(eventRepository.getReferenceById(pending.eventId()))
+                .email(pending.email())
+                .enrolledAt(pending.enrolledAt())
+                .build();
+    }
+
+    private record PendingEnrollment(Long eventId, String email, LocalDateTime enrolledAt,
+                                     CompletableFuture<Enrollment> result) {
+    }
+}
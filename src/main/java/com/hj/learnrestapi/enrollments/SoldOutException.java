@@ -0,0 +1,11 @@
+package com.hj.learnrestapi.enrollments;
+
+/**
+ * 메모리에서는 좌석을 예약했지만 DB 의 참가 수 상한(event.enrolled)에 걸려 저장하지 못했을 때 던진다.
+ * 다른 인스턴스가 먼저 좌석을 판 경우다. 좌석을 돌려주고 409 로 응답한다.
+ */
+class SoldOutException extends RuntimeException {
+    SoldOutException(Long eventId) {
+        super("No seats left for event " + eventId);
+    }
+}
@@ -1,8 +1,20 @@
 package com.hj.learnrestapi.events;
 
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.hj.learnrestapi.accounts.Account;
+import com.hj.learnrestapi.common.BlockIdGenerator;
+import com.hj.learnrestapi.configs.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.cglib.core.Local;
 
 import java.time.LocalDateTime;
@@ -14,9 +26,25 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(of = "id")
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.EVENT_REGION)
+@Table(indexes = {
+        //커서 페이징에서 seek 하는 (정렬 키, id) 튜플. 이벤트 기간 필터도 이 인덱스를 쓴다.
+        @Index(name = "idx_event_name_id", columnList = "name, id"),
+        @Index(name = "idx_event_begin_event_date_time_id", columnList = "beginEventDateTime, id"),
+        //목록 필터(EventSearchCondition). 어떤 조합이든 선두 컬럼이 조건에 들어 있는 인덱스가 하나 이상 있다.
+        @Index(name = "idx_event_status_begin_event_date_time", columnList = "eventStatus, beginEventDateTime"),
+        @Index(name = "idx_event_begin_enrollment_date_time", columnList = "beginEnrollmentDateTime"),
+        @Index(name = "idx_event_free_offline_begin_event_date_time", columnList = "free, offline, beginEventDateTime"),
+        @Index(name = "idx_event_offline_begin_event_date_time", columnList = "offline, beginEventDateTime"),
+        @Index(name = "idx_event_base_price", columnList = "basePrice"),
+        @Index(name = "idx_event_manager", columnList = "manager_id")
+})
 public class Event {
 
-    @Id @GeneratedValue
+    @Id @GeneratedValue(generator = "event_id")
+    @GenericGenerator(name = "event_id", type = BlockIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "event_seq"))
     private Long id;
     private String name;
     private String description;
@@ -28,12 +56,25 @@ public class Event {
     private int basePrice;      //(optional)
     private int maxPrice;       //(optional)
     private int limitOfEnrollment;
+    //저장된 참가 수. EnrollmentWriter 의 조건부 UPDATE 로만 올린다.
+    //엔티티를 저장할 때는 이 컬럼을 쓰지 않으므로 modifyEvent 가 그 사이에 오른 값을 덮어쓰지 않는다.
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    @JsonIgnore
+    private int enrolled;
     private boolean offline;
     private boolean free;
     @Enumerated(EnumType.STRING)
     private EventStatus eventStatus;
-    @ManyToOne
+    //목록, 상세 표현에는 매니저 id 만 필요하다. id 는 manager_id 컬럼에 있으므로 account 를 조회하지 않는다.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+    @JsonIdentityReference(alwaysAsId = true)
     private Account manager;
+    //낙관적 락 버전. 응답 본문 대신 ETag 헤더로 내보낸다.
+    @Version
+    @JsonIgnore
+    private Long version;
 
     public void update() {
         //Update Free
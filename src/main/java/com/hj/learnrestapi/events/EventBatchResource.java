@@ -0,0 +1,43 @@
+package com.hj.learnrestapi.events;
+
+import com.hj.learnrestapi.common.ErrorsResource;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.validation.Errors;
+
+import java.util.List;
+
+/**
+ * 이벤트 일괄 생성 결과.
+ * created 에는 생성된 이벤트가 요청 순서대로, errors 에는 실패한 항목이 요청 배열의 index 와 함께 담긴다.
+ */
+public class EventBatchResource extends RepresentationModel<EventBatchResource> {
+    private final List<EventResource> created;
+    private final List<ItemErrorsResource> errors;
+
+    public EventBatchResource(List<EventResource> created, List<ItemErrorsResource> errors) {
+        this.created = created;
+        this.errors = errors;
+    }
+
+    public List<EventResource> getCreated() {
+        return created;
+    }
+
+    public List<ItemErrorsResource> getErrors() {
+        return errors;
+    }
+
+    //ErrorsResource 와 같은 형식에 요청 배열의 index 만 추가한다.
+    public static class ItemErrorsResource extends ErrorsResource {
+        private final int index;
+
+        public ItemErrorsResource(int index, Errors content) {
+            super(content);
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+    }
+}
@@ -1,36 +1,62 @@
 package com.hj.learnrestapi.events;
 
 import com.hj.learnrestapi.common.ErrorsResource;
+import com.hj.learnrestapi.enrollments.EnrollmentSeats;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.web.PagedResourcesAssembler;
-import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Controller
 @RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
 public class EventController {
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final EventRepository eventRepository;
-    private final ModelMapper modelMapper;
+    private final EventMapper eventMapper;
     private final EventValidator eventValidator;
+    private final Validator validator;
+    private final EventExportService eventExportService;
+    private final EventRepresentationCache eventRepresentationCache;
+    private final EventMetrics eventMetrics;
+    private final EnrollmentSeats enrollmentSeats;
+    private final EventLifecycleScheduler eventLifecycleScheduler;
 
 
     //dto가 validation을 통과하지 못하면, Errors에 에러 내용이 담긴다.
@@ -40,64 +66,212 @@ public class EventController {
             return badRequest(errors);
         }
 
-        eventValidator.validate(eventDto, errors);
+        eventMetrics.getValidation().record(() -> eventValidator.validate(eventDto, errors));
         if (errors.hasErrors()) {
             return badRequest(errors);
         }
 
-        Event event = modelMapper.map(eventDto, Event.class);
+        Event event = eventMetrics.getMapping().record(() -> eventMapper.toEvent(eventDto));
         event.update();
         Event newEvent = eventRepository.save(event);
+        eventLifecycleScheduler.schedule(newEvent);
 
         //링크 만들기
-        WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class)
-                .slash(newEvent.getId());
-        URI createdUri = selfLinkBuilder
-                .toUri();
+        URI createdUri = EventLinks.eventUri(newEvent.getId());
         EventResource eventResource = new EventResource(event);
-        eventResource.add(linkTo(EventController.class).withRel("query-events"));
-//        eventResource.add(selfLinkBuilder.withSelfRel());
-        eventResource.add(selfLinkBuilder.withRel("update-event")); //put 요청. 어떤 메소드를 사용해야하는지 설정할 수는 없음.
-        eventResource.add(Link.of("/docs/index.html#resources-events-created").withRel("profile"));
+        eventResource.add(EventLinks.queryEvents("query-events"));
+        eventResource.add(EventLinks.updateEvent(newEvent.getId())); //put 요청. 어떤 메소드를 사용해야하는지 설정할 수는 없음.
+        eventResource.add(EventLinks.PROFILE_CREATED);
 
-        return ResponseEntity.created(createdUri).body(eventResource);  //objectmapper가 컨버팅. bean serializer를 사용해서 변환.
+        return ResponseEntity.created(createdUri).eTag(eTag(newEvent)).body(eventResource);  //objectmapper가 컨버팅. bean serializer를 사용해서 변환.
+    }
+
+    //여러 이벤트를 한 번에 생성한다. 항목마다 @Valid, EventValidator 검증을 하고,
+    //통과한 항목만 한 트랜잭션에서 JDBC batch insert 로 저장한다. 실패한 항목은 index 와 함께 에러로 돌려준다.
+    @PostMapping("/batch")
+    public ResponseEntity createEvents(@RequestBody List<EventDto> eventDtos) {
+        if (eventDtos.isEmpty() || eventDtos.size() > MAX_BATCH_SIZE) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "eventDtos");
+            errors.reject("wrongBatchSize", "Batch size must be between 1 and " + MAX_BATCH_SIZE);
+            return badRequest(errors);
+        }
+
+        SpringValidatorAdapter beanValidator = new SpringValidatorAdapter(validator);
+        List<Event> events = new ArrayList<>();
+        List<EventBatchResource.ItemErrorsResource> itemErrors = new ArrayList<>();
+        for (int index = 0; index < eventDtos.size(); index++) {
+            EventDto eventDto = eventDtos.get(index);
+            Errors errors = validate(eventDto, beanValidator);
+            if (errors.hasErrors()) {
+                itemErrors.add(new EventBatchResource.ItemErrorsResource(index, errors));
+                continue;
+            }
+
+            Event event = eventMetrics.getMapping().record(() -> eventMapper.toEvent(eventDto));
+            event.update();
+            events.add(event);
+        }
+
+        if (events.isEmpty()) {
+            return ResponseEntity.badRequest().body(new EventBatchResource(List.of(), itemErrors));
+        }
+
+        List<Event> saved = this.eventRepository.saveAll(events);
+        saved.forEach(eventLifecycleScheduler::schedule);
+        List<EventResource> created = saved.stream()
+                .map(EventResource::new)
+                .toList();
+        EventBatchResource eventBatchResource = new EventBatchResource(created, itemErrors);
+        eventBatchResource.add(EventLinks.queryEvents("query-events"));
+        eventBatchResource.add(EventLinks.PROFILE_CREATED_BATCH);
+        return ResponseEntity.status(HttpStatus.CREATED).body(eventBatchResource);
     }
 
     @GetMapping
-    public ResponseEntity queryEvents(Pageable pageable, PagedResourcesAssembler<Event> assembler) {Page<Event> page = this.eventRepository.findAll(pageable);
+    public ResponseEntity queryEvents(EventSearchCondition condition, Pageable pageable, PagedResourcesAssembler<Event> assembler) {
+        Page<Event> page = this.eventRepository.findAll(EventSpecifications.matches(condition), pageable);
         var pagedEntityModel = assembler.toModel(page, new RepresentationModelAssembler<Event, RepresentationModel<?>>() {
             @Override
             public RepresentationModel<?> toModel(Event entity) {
                 return new EventResource(entity);
             }
         });
-        pagedEntityModel.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+        pagedEntityModel.add(EventLinks.PROFILE_LIST);
         return ResponseEntity.ok(pagedEntityModel);
 
     }
 
+    //?fields=name,beginEventDateTime,location 처럼 필요한 필드만 조회(select)하고 직렬화한다.
+    @GetMapping(params = {"fields", "!cursor"})
+    public ResponseEntity querySparseEvents(@RequestParam Set<String> fields, EventSearchCondition condition, Pageable pageable,
+                                            PagedResourcesAssembler<Map<String, Object>> assembler) {
+        Errors errors = validateFields(fields);
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        Page<Map<String, Object>> page = this.eventRepository.findFields(EventSpecifications.matches(condition), fields, pageable);
+        var pagedModel = assembler.toModel(page, row -> new SparseEventResource(row, fields));
+        pagedModel.add(EventLinks.PROFILE_LIST);
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    //커서(keyset) 페이징. cursor 파라미터가 있으면 이 핸들러가 처리하고, 빈 값이면 첫 페이지를 준다.
+    //OFFSET 스캔과 count 쿼리 없이 (정렬 키, id) 인덱스로 seek 하므로 페이지 깊이와 상관없이 지연 시간이 일정하다.
+    @GetMapping(params = "cursor")
+    public ResponseEntity queryEventsByCursor(@RequestParam String cursor, @RequestParam(required = false) Set<String> fields,
+                                              EventSearchCondition condition, Pageable pageable) {
+        //커서 페이지는 전체 표현만 준다.
+        if (fields != null) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "fields");
+            errors.reject("fieldsWithCursor", "fields is not supported with cursor");
+            return badRequest(errors);
+        }
+
+        EventCursor eventCursor;
+        try {
+            eventCursor = cursor.isBlank() ? EventCursor.first(pageable.getSort()) : EventCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "cursor");
+            errors.reject("wrongCursor", e.getMessage());
+            return badRequest(errors);
+        }
+
+        //한 행 더 읽어서 스크롤 방향으로 더 있는지 안다.
+        int size = pageable.getPageSize();
+        List<Event> rows = this.eventRepository.findByCursor(EventSpecifications.matches(condition), eventCursor, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Event> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (eventCursor.isBackward()) {
+            Collections.reverse(content);
+        }
+
+        List<EventResource> eventResources = content.stream().map(EventResource::new).toList();
+        CollectionModel<EventResource> collectionModel = CollectionModel.of(eventResources);
+        collectionModel.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        if (!content.isEmpty()) {
+            //뒤로 스크롤한 경우 hasMore 는 더 이전 페이지가 있는지를 뜻한다.
+            boolean hasNext = eventCursor.isBackward() || hasMore;
+            boolean hasPrev = eventCursor.isBackward() ? hasMore : !eventCursor.isFirst();
+            if (hasNext) {
+                Event last = content.get(content.size() - 1);
+                collectionModel.add(cursorLink(eventCursor.after(last)).withRel("next"));
+            }
+            if (hasPrev) {
+                Event first = content.get(0);
+                collectionModel.add(cursorLink(eventCursor.before(first)).withRel("prev"));
+            }
+        }
+        collectionModel.add(EventLinks.PROFILE_LIST_CURSOR);
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    //전체 이벤트를 NDJSON 으로 스트리밍한다. 페이지 조회와 달리 count, offset 쿼리가 없다.
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public void exportEvents(@RequestParam(required = false) EventStatus eventStatus,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        eventExportService.export(eventStatus, from, to, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity getEvent(@PathVariable Long id) {
+    public ResponseEntity getEvent(@PathVariable Long id, WebRequest webRequest) {
         Optional<Event> optionalEvent = this.eventRepository.findById(id);
         if (optionalEvent.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         Event event = optionalEvent.get();
-        EventResource eventResource = new EventResource(event);
-        eventResource.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+        //If-None-Match 가 현재 버전과 같으면 리소스를 만들거나 직렬화하지 않고 304 로 응답한다.
+        //GET 요청에서는 checkNotModified 가 ETag 헤더도 응답에 넣어 준다.
+        if (webRequest.checkNotModified(eTag(event))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
 
-        return ResponseEntity.ok(eventResource);
+        //같은 버전의 직렬화된 본문이 있으면 리소스를 만들거나 직렬화하지 않고 그대로 쓴다.
+        byte[] body = eventRepresentationCache.get(event);
+        if (body == null) {
+            EventResource eventResource = new EventResource(event);
+            eventResource.add(EventLinks.PROFILE_GET);
+            body = eventRepresentationCache.put(event, eventResource);
+        }
+
+        return ResponseEntity.ok().contentType(MediaTypes.HAL_JSON).body(body);
 
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity getSparseEvent(@PathVariable Long id, @RequestParam Set<String> fields, WebRequest webRequest) {
+        Errors errors = validateFields(fields);
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        Optional<Map<String, Object>> optionalRow = this.eventRepository.findFieldsById(id, fields);
+        if (optionalRow.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> row = optionalRow.get();
+        if (webRequest.checkNotModified(sparseETag(row.get("version"), fields))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        SparseEventResource eventResource = new SparseEventResource(row, fields);
+        eventResource.add(EventLinks.PROFILE_GET);
+        return ResponseEntity.ok(eventResource);
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity modifyEvent(@RequestBody @Valid EventDto eventDto, Errors errors, @PathVariable Long id) {
+    public ResponseEntity modifyEvent(@RequestBody @Valid EventDto eventDto, Errors errors, @PathVariable Long id, WebRequest webRequest) {
         if (errors.hasErrors()) {
             return badRequest(errors);
         }
 
-        eventValidator.validate(eventDto, errors);
+        eventMetrics.getValidation().record(() -> eventValidator.validate(eventDto, errors));
         if (errors.hasErrors()) {
             return badRequest(errors);
         }
@@ -108,58 +282,92 @@ public class EventController {
         }
 
         Event event = optionalEvent.get();
+        //If-Match 가 현재 버전과 다르면 412. (PUT 요청에서 checkNotModified 는 If-Match 를 검사한다.)
+        if (webRequest.checkNotModified(eTag(event))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        //상태 전환 시각이 바뀌었는지 보려고 수정 전 값을 둔다.
+        EventStatus eventStatus = event.getEventStatus();
+        LocalDateTime beginEnrollmentDateTime = event.getBeginEnrollmentDateTime();
+        LocalDateTime closeEnrollmentDateTime = event.getCloseEnrollmentDateTime();
 
-        modelMapper.map(eventDto, event);
+        eventMetrics.getMapping().record(() -> eventMapper.updateEvent(eventDto, event));
         event.update();
         //Using DynamicUpdate? Using Converter?
-        eventRepository.save(event);
+        Event savedEvent;
+        try {
+            savedEvent = eventRepository.save(event);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            //If-Match 검사 이후에 다른 요청이 먼저 수정한 경우
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
 
-        EventResource eventResource = new EventResource(event);
-        eventResource.add(Link.of("/docs/index.html#resources-events-update").withRel("profile"));
-        return ResponseEntity.ok().body(eventResource);
+        eventRepresentationCache.invalidate(id);
+        enrollmentSeats.refresh(savedEvent);
+        //신청 시작/마감 시각이나 상태가 바뀌었을 때만 다음 상태 전환을 다시 넣는다.
+        if (savedEvent.getEventStatus() != eventStatus
+                || !Objects.equals(savedEvent.getBeginEnrollmentDateTime(), beginEnrollmentDateTime)
+                || !Objects.equals(savedEvent.getCloseEnrollmentDateTime(), closeEnrollmentDateTime)) {
+            eventLifecycleScheduler.schedule(savedEvent);
+        }
+
+        EventResource eventResource = new EventResource(savedEvent);
+        eventResource.add(EventLinks.PROFILE_UPDATE);
+        return ResponseEntity.ok().eTag(eTag(savedEvent)).body(eventResource);
     }
 
 
-    private ResponseEntity<ErrorsResource> badRequest(Errors errors) {
-        return ResponseEntity.badRequest().body(new ErrorsResource(errors));
+    //버전이 바뀌면 표현도 바뀌므로 버전을 강한(strong) ETag 로 쓴다.
+    private String eTag(Event event) {
+        return eTag(event.getVersion());
+    }
+
+    private String eTag(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    //부분 표현은 본문이 다르므로 전체 표현과 ETag 가 겹치지 않게 필드 목록을 넣는다. 요청 순서와 상관없이 FIELDS 순서로 쓴다.
+    private String sparseETag(Object version, Set<String> fields) {
+        return "\"" + version + ";" + EventRepositoryCustom.FIELDS.stream()
+                .filter(fields::contains)
+                .collect(Collectors.joining(",")) + "\"";
+    }
+
+    private Errors validateFields(Set<String> fields) {
+        Errors errors = new MapBindingResult(new HashMap<>(), "fields");
+        if (fields.isEmpty() || !EventRepositoryCustom.FIELDS.containsAll(fields)) {
+            errors.reject("wrongFields", "fields must be a subset of " + EventRepositoryCustom.FIELDS);
+        }
+        return errors;
     }
 
-//    @GetMapping("/{id}")
-//    public Class<?> getEvent(@PathVariable Long id) {
-//
-//        return null;
-//    }
-
-//    //dto가 validation을 통과하지 못하면, Errors에 에러 내용이 담긴다.
-//    @PostMapping
-//    public ResponseEntity temp(@RequestBody @Valid EventDto eventDto, Errors errors) {
-//        if (errors.hasErrors()) {
-//            return ResponseEntity.badRequest().body(errors);
-//        }
-//
-//        eventValidator.validate(eventDto, errors);
-//        if (errors.hasErrors()) {
-//            return ResponseEntity.badRequest().body(errors);
-//        }
-//
-//        Event event = modelMapper.map(eventDto, Event.class);
-//        event.update();
-//        Event newEvent = eventRepository.save(event);
-//
-//        //링크 만들기
-//        WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class)
-//                .slash(newEvent.getId());
-//        URI createdUri = selfLinkBuilder
-//                .toUri();
-//        EventResource eventResource = new EventResource(event);
-//        eventResource.add(linkTo(EventController.class).withRel("query-events"));
-//        eventResource.add(selfLinkBuilder.withSelfRel());
-//        eventResource.add(selfLinkBuilder.withRel("update-event")); //put 요청. 어떤 메소드를 사용해야하는지 설정할 수는 없음.
-//
-//        ResponseEntity.created(linkTo(methodOn(EventController.class).getEvent(newEvent.getId())).withRel("query-events").toUri())
-//                .body();
-//
-//        return ResponseEntity.created(createdUri).body(eventResource);  //objectmapper가 컨버팅. bean serializer를 사용해서 변환.
-//    }
+    //정렬 정보는 토큰 안에 들어 있으므로 sort, page 파라미터는 빼고 size 만 유지한다.
+    private Link cursorLink(EventCursor eventCursor) {
+        return Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", eventCursor.encode())
+                .replaceQueryParam("sort")
+                .replaceQueryParam("page")
+                .toUriString());
+    }
+
+    //createEvent 와 같은 순서로 검증한다. @Valid 를 통과해야 EventValidator 를 실행한다.
+    private Errors validate(EventDto eventDto, SpringValidatorAdapter beanValidator) {
+        if (eventDto == null) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "eventDto");
+            errors.reject("emptyEvent", "Event must not be null");
+            return errors;
+        }
 
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        beanValidator.validate(eventDto, errors);
+        if (!errors.hasErrors()) {
+            eventMetrics.getValidation().record(() -> eventValidator.validate(eventDto, errors));
+        }
+        return errors;
+    }
+
+    private ResponseEntity<ErrorsResource> badRequest(Errors errors) {
+        return ResponseEntity.badRequest().body(new ErrorsResource(errors));
+    }
 }
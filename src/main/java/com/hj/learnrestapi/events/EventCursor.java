@@ -0,0 +1,162 @@
+package com.hj.learnrestapi.events;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 커서(keyset) 페이징의 위치를 나타내는 토큰.
+ * (정렬 키, id) 튜플을 기준으로 seek 하기 때문에 OFFSET 스캔과 count 쿼리가 필요 없다.
+ * 클라이언트에게는 base64url 로 인코딩된 불투명한 문자열로만 전달한다.
+ * 정렬 키가 null 인 행은 어떤 값보다도 큰 것으로 본다. 오름차순이면 맨 뒤, 내림차순이면 맨 앞에 온다.
+ */
+public class EventCursor {
+    //인덱스가 걸려 있는 정렬 키만 허용한다.
+    public static final Set<String> SORT_PROPERTIES = Set.of("id", "name", "beginEventDateTime");
+    private static final String SEPARATOR = "\u0000";
+    //정렬 값 앞에 붙인다. 빈 문자열은 null 이다. ("" 인 name 과 null 을 구분한다.)
+    private static final String VALUE_PREFIX = "=";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final Long id;
+    private final boolean backward;
+
+    private EventCursor(String property, Sort.Direction direction, Object value, Long id, boolean backward) {
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+        this.backward = backward;
+    }
+
+    /**
+     * 첫 페이지용 커서. 요청의 sort 중 첫 번째 정렬 키만 사용하며, 없으면 id 오름차순.
+     */
+    public static EventCursor first(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        if (!SORT_PROPERTIES.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+        }
+        return new EventCursor(order.getProperty(), order.getDirection(), null, null, false);
+    }
+
+    public static EventCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        String[] parts = raw.split(SEPARATOR, -1);
+        if (parts.length != 5 || !SORT_PROPERTIES.contains(parts[0])) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            return new EventCursor(parts[0], Sort.Direction.fromString(parts[1]),
+                    parseValue(parts[0], parts[2]), Long.valueOf(parts[3]), "B".equals(parts[4]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    public EventCursor after(Event event) {
+        return new EventCursor(property, direction, valueOf(event), event.getId(), false);
+    }
+
+    public EventCursor before(Event event) {
+        return new EventCursor(property, direction, valueOf(event), event.getId(), true);
+    }
+
+    public String encode() {
+        String encodedValue = value == null ? "" : VALUE_PREFIX + value;
+        String raw = String.join(SEPARATOR, property, direction.name(), encodedValue, String.valueOf(id), backward ? "B" : "F");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public boolean isBackward() {
+        return backward;
+    }
+
+    /**
+     * 이 커서 위치부터 스크롤 방향으로 읽을 구간들. 앞 구간부터 필요한 행 수만큼 읽는다.
+     * 정렬 키가 null 인 행과 아닌 행을 따로 읽어서, 각 구간이 (정렬 키, id) 또는 id 인덱스로 seek 하는 단순한 비교 조건이 되게 한다.
+     */
+    public List<Segment> segments() {
+        Sort.Direction scroll = backward ? (direction.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC) : direction;
+        if ("id".equals(property)) {
+            return List.of(new Segment(isFirst() ? Specification.where(null) : seekId(scroll), Sort.by(scroll, "id")));
+        }
+        Segment values = new Segment(isFirst() || value == null ? isNotNull() : isNotNull().and(seekValue(scroll)),
+                Sort.by(scroll, property).and(Sort.by(scroll, "id")));
+        Segment nulls = new Segment(isFirst() || value != null ? isNull() : isNull().and(seekId(scroll)), Sort.by(scroll, "id"));
+
+        if (isFirst()) {
+            return scroll.isAscending() ? List.of(values, nulls) : List.of(nulls, values);
+        }
+        if (value != null) {
+            return scroll.isAscending() ? List.of(values, nulls) : List.of(values);
+        }
+        return scroll.isAscending() ? List.of(nulls) : List.of(nulls, new Segment(isNotNull(), values.sort()));
+    }
+
+    public record Segment(Specification<Event> specification, Sort sort) {
+    }
+
+    private Specification<Event> isNotNull() {
+        return (root, query, cb) -> cb.isNotNull(root.get(property));
+    }
+
+    private Specification<Event> isNull() {
+        return (root, query, cb) -> cb.isNull(root.get(property));
+    }
+
+    //(정렬 키, id) > (value, id)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<Event> seekValue(Sort.Direction scroll) {
+        Comparable key = (Comparable) value;
+        return (root, query, cb) -> {
+            var path = root.<Comparable>get(property);
+            return cb.or(
+                    scroll.isAscending() ? cb.greaterThan(path, key) : cb.lessThan(path, key),
+                    cb.and(cb.equal(path, key), seekId(scroll).toPredicate(root, query, cb)));
+        };
+    }
+
+    private Specification<Event> seekId(Sort.Direction scroll) {
+        return (root, query, cb) -> scroll.isAscending() ? cb.greaterThan(root.<Long>get("id"), id) : cb.lessThan(root.<Long>get("id"), id);
+    }
+
+    private Object valueOf(Event event) {
+        return switch (property) {
+            case "name" -> event.getName();
+            case "beginEventDateTime" -> event.getBeginEventDateTime();
+            default -> event.getId();
+        };
+    }
+
+    private static Object parseValue(String property, String encoded) {
+        if (encoded.isEmpty()) {
+            return null;
+        }
+        if (!encoded.startsWith(VALUE_PREFIX)) {
+            throw new IllegalArgumentException("Malformed cursor value");
+        }
+        String value = encoded.substring(VALUE_PREFIX.length());
+        return switch (property) {
+            case "name" -> value;
+            case "beginEventDateTime" -> LocalDateTime.parse(value);
+            default -> Long.valueOf(value);
+        };
+    }
+}
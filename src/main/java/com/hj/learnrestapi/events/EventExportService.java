@@ -0,0 +1,57 @@
+package com.hj.learnrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 이벤트 전체를 NDJSON(한 줄에 이벤트 하나)으로 내보낸다.
+ * 커서로 읽은 이벤트를 바로 출력 스트림에 쓰고, fetch size 만큼 쓸 때마다 영속성 컨텍스트를 비우므로
+ * 테이블 크기와 상관없이 메모리 사용량이 일정하다.
+ */
+@Service
+public class EventExportService {
+    private final EventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter eventWriter;
+    private final EventMetrics eventMetrics;
+
+    public EventExportService(EventRepository eventRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                              EventMetrics eventMetrics) {
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.eventWriter = objectMapper.writerFor(Event.class);
+        this.eventMetrics = eventMetrics;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(EventStatus eventStatus, LocalDateTime from, LocalDateTime to, OutputStream outputStream) throws IOException {
+        long count = 0;
+        try (Stream<Event> events = eventRepository.streamForExport(eventStatus, from, to)) {
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                long start = System.nanoTime();
+                byte[] line = eventWriter.writeValueAsBytes(iterator.next());
+                eventMetrics.getSerialization().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                outputStream.write(line);
+                outputStream.write('\n');
+
+                if (++count % EventRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
+        return count;
+    }
+}
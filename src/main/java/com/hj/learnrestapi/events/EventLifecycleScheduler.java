@@ -0,0 +1,185 @@
+package com.hj.learnrestapi.events;
+
+import com.hj.learnrestapi.enrollments.EnrollmentSeats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 참가 신청 시작/마감 시각이 되면 이벤트 상태를 바꾼다.
+ * PUBLISHED -> BEGAN_ENROLLMENT (beginEnrollmentDateTime), BEGAN_ENROLLMENT -> CLOSED_ENROLLMENT (closeEnrollmentDateTime)
+ *
+ * 앞으로 일어날 전환을 시각 순서로 DelayQueue(우선순위 큐)에 넣어 두고, 가장 이른 전환 시각까지 잠들었다가
+ * 그때 만기된 전환을 모아서 종류별로 UPDATE 한 번에 적용한다. 주기적으로 테이블을 훑지 않는다.
+ * 큐는 기동 시 전환을 기다리는 상태의 이벤트로 다시 만들고, 이벤트를 만들거나 modifyEvent 가 날짜, 상태를 바꾸면 새 전환을 넣는다.
+ * 이벤트마다 기다리는 전환은 하나뿐이다. 새 전환을 넣으면 예전 전환을 큐에서 빼고, 그 사이에 꺼낸 예전 전환은 적용하지 않는다.
+ */
+@Slf4j
+@Component
+public class EventLifecycleScheduler {
+    //IN 절 하나에 넣는 최대 id 수
+    private static final int UPDATE_CHUNK_SIZE = 500;
+
+    private final EventRepository eventRepository;
+    private final EnrollmentSeats enrollmentSeats;
+    private final TransactionTemplate transactionTemplate;
+    private final DelayQueue<Transition> transitions = new DelayQueue<>();
+    //이벤트별로 기다리는 전환. 큐에 남은 전환이 이 값과 다르면 바뀌기 전 전환이다.
+    private final ConcurrentMap<Long, Transition> scheduled = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread worker;
+
+    public EventLifecycleScheduler(EventRepository eventRepository, EnrollmentSeats enrollmentSeats,
+                                   TransactionTemplate transactionTemplate) {
+        this.eventRepository = eventRepository;
+        this.enrollmentSeats = enrollmentSeats;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    enum Type {
+        BEGIN_ENROLLMENT, CLOSE_ENROLLMENT
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        //복제본이 아니라 primary 에서 읽도록 쓰기 트랜잭션 안에서 조회한다.
+        List<EventSchedule> pending = transactionTemplate.execute(status -> eventRepository.findByEventStatusIn(
+                EnumSet.of(EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT)));
+        pending.forEach(this::schedule);
+        log.info("Scheduled {} event status transitions", pending.size());
+
+        running = true;
+        worker = Thread.ofPlatform().name("event-lifecycle").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    //이벤트를 만들거나 날짜, 상태를 바꾼 뒤 호출한다. 현재 상태에서 다음 전환만 넣는다.
+    public void schedule(Event event) {
+        schedule(event.getId(), event.getEventStatus(), event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime());
+    }
+
+    private void schedule(EventSchedule event) {
+        schedule(event.getId(), event.getEventStatus(), event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime());
+    }
+
+    private void schedule(Long id, EventStatus eventStatus, LocalDateTime beginEnrollmentDateTime, LocalDateTime closeEnrollmentDateTime) {
+        Transition transition = null;
+        if (eventStatus == EventStatus.PUBLISHED && beginEnrollmentDateTime != null) {
+            transition = new Transition(id, Type.BEGIN_ENROLLMENT, beginEnrollmentDateTime);
+        } else if (eventStatus == EventStatus.BEGAN_ENROLLMENT && closeEnrollmentDateTime != null) {
+            transition = new Transition(id, Type.CLOSE_ENROLLMENT, closeEnrollmentDateTime);
+        }
+
+        //다음 전환이 없어졌으면 기다리던 전환만 뺀다.
+        Transition prior = transition == null ? scheduled.remove(id) : scheduled.put(id, transition);
+        if (prior != null) {
+            transitions.remove(prior);
+        }
+        if (transition != null) {
+            transitions.add(transition);
+        }
+    }
+
+    long pendingTransitions(Long eventId) {
+        return transitions.stream()
+                .filter(transition -> transition.eventId().equals(eventId))
+                .count();
+    }
+
+    private void run() {
+        List<Transition> due = new ArrayList<>();
+        while (running) {
+            try {
+                due.add(transitions.take());
+                transitions.drainTo(due);
+                //꺼내는 사이에 다시 넣은 이벤트의 예전 전환은 버린다.
+                due.removeIf(transition -> !scheduled.remove(transition.eventId(), transition));
+                apply(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                //다음 기동 때 다시 만들어지지만, 그 전까지 놓치지 않도록 잠시 뒤 다시 넣는다.
+                log.error("Failed to apply {} event status transitions", due.size(), e);
+                LocalDateTime retryAt = LocalDateTime.now().plusSeconds(10);
+                //그 사이에 새 전환이 들어온 이벤트는 새 전환을 따른다.
+                due.forEach(transition -> {
+                    Transition retry = new Transition(transition.eventId(), transition.type(), retryAt);
+                    if (scheduled.putIfAbsent(transition.eventId(), retry) == null) {
+                        transitions.add(retry);
+                    }
+                });
+            } finally {
+                due.clear();
+            }
+        }
+    }
+
+    private void apply(List<Transition> due) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Type, List<Long>> idsByType = due.stream()
+                .collect(Collectors.groupingBy(Transition::type, Collectors.mapping(Transition::eventId, Collectors.toList())));
+
+        for (List<Long> ids : chunks(idsByType.getOrDefault(Type.BEGIN_ENROLLMENT, List.of()))) {
+            List<EventSchedule> began = transactionTemplate.execute(status -> {
+                eventRepository.beginEnrollment(ids, now);
+                return eventRepository.findByIdInAndEventStatus(ids, EventStatus.BEGAN_ENROLLMENT);
+            });
+            //신청이 시작된 이벤트는 참가 신청을 받기 시작하고, 마감 전환을 이어서 넣는다.
+            began.forEach(enrollmentSeats::refresh);
+            began.forEach(this::schedule);
+        }
+        for (List<Long> ids : chunks(idsByType.getOrDefault(Type.CLOSE_ENROLLMENT, List.of()))) {
+            List<EventSchedule> closed = transactionTemplate.execute(status -> {
+                eventRepository.closeEnrollment(ids, now);
+                return eventRepository.findByIdInAndEventStatus(ids, EventStatus.CLOSED_ENROLLMENT);
+            });
+            closed.forEach(enrollmentSeats::refresh);
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> distinct = ids.stream().distinct().toList();
+        for (int from = 0; from < distinct.size(); from += UPDATE_CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    record Transition(Long eventId, Type type, LocalDateTime dueAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(LocalDateTime.now(), dueAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return dueAt.compareTo(((Transition) other).dueAt);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hj.learnrestapi.events;
+
+import com.hj.learnrestapi.common.Links;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+import java.net.URI;
+
+/**
+ * 이벤트 리소스 링크 팩토리.
+ * profile 링크는 고정 값이므로 미리 만들어 두고, 나머지는 요청 base URI 에 경로를 붙여서 만든다.
+ */
+public final class EventLinks {
+    private static final String EVENTS_PATH = Links.mappingPath(EventController.class);
+
+    public static final Link PROFILE_LIST = Link.of("/docs/index.html#resources-events-list").withRel("profile");
+    public static final Link PROFILE_LIST_CURSOR = Link.of("/docs/index.html#resources-events-list-cursor").withRel("profile");
+    public static final Link PROFILE_CREATED = Link.of("/docs/index.html#resources-events-created").withRel("profile");
+    public static final Link PROFILE_CREATED_BATCH = Link.of("/docs/index.html#resources-events-created-batch").withRel("profile");
+    public static final Link PROFILE_GET = Link.of("/docs/index.html#resources-events-get").withRel("profile");
+    public static final Link PROFILE_UPDATE = Link.of("/docs/index.html#resources-events-update").withRel("profile");
+
+    private EventLinks() {
+    }
+
+    public static String eventsHref() {
+        return Links.baseUri() + EVENTS_PATH;
+    }
+
+    public static String eventHref(Long id) {
+        return eventsHref() + "/" + id;
+    }
+
+    public static URI eventUri(Long id) {
+        return URI.create(eventHref(id));
+    }
+
+    public static Link self(Long id) {
+        return Link.of(eventHref(id), IanaLinkRelations.SELF);
+    }
+
+    public static Link updateEvent(Long id) {
+        return Link.of(eventHref(id), "update-event");
+    }
+
+    public static Link queryEvents(String rel) {
+        return Link.of(eventsHref(), rel);
+    }
+}
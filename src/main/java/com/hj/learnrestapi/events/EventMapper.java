@@ -0,0 +1,36 @@
+package com.hj.learnrestapi.events;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * EventDto <-> Event 매핑. 구현체(EventMapperImpl)는 컴파일 시점에 MapStruct 가 만든다.
+ * 런타임 리플렉션이 없고, 매핑되지 않은 필드가 생기면 컴파일 에러가 난다.
+ * free, offline 은 매핑 후 Event.update() 가 계산한다.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface EventMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "free", ignore = true)
+    @Mapping(target = "offline", ignore = true)
+    @Mapping(target = "eventStatus", ignore = true)
+    @Mapping(target = "manager", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "enrolled", ignore = true)
+    Event toEvent(EventDto eventDto);
+
+    //기존 엔티티에 덮어쓴다. ModelMapper 와 같이 null 값도 그대로 복사한다.
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "free", ignore = true)
+    @Mapping(target = "offline", ignore = true)
+    @Mapping(target = "eventStatus", ignore = true)
+    @Mapping(target = "manager", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "enrolled", ignore = true)
+    void updateEvent(EventDto eventDto, @MappingTarget Event event);
+
+    EventDto toEventDto(Event event);
+}
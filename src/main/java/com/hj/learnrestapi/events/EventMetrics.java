@@ -0,0 +1,32 @@
+package com.hj.learnrestapi.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이벤트 요청 처리 단계별 타이머.
+ * 핸들러 전체 시간(http.server.requests)과 리포지토리 호출(spring.data.repository.invocations)은 Spring Boot 가 기록하고,
+ * 여기서는 그 사이의 검증, 매핑, 직접 하는 직렬화 시간을 기록한다.
+ */
+@Getter
+@Component
+public class EventMetrics {
+    private final Timer validation;
+    private final Timer mapping;
+    private final Timer serialization;
+
+    public EventMetrics(MeterRegistry meterRegistry) {
+        this.validation = timer(meterRegistry, "event.validation", "EventValidator");
+        this.mapping = timer(meterRegistry, "event.mapping", "EventMapper (EventDto -> Event)");
+        this.serialization = timer(meterRegistry, "event.serialization", "HAL JSON / NDJSON serialization done outside the message converters");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
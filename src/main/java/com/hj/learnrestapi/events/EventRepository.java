@@ -1,6 +1,68 @@
 package com.hj.learnrestapi.events;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.*;
+
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>, EventRepositoryCustom {
+    int EXPORT_FETCH_SIZE = 500;
+
+    //전체 내보내기용. 결과를 한 번에 메모리에 올리지 않고 fetch size 만큼씩 커서로 읽는다.
+    //조건이 null 이면 해당 필터는 적용하지 않는다. 트랜잭션 안에서 사용하고 반드시 닫아야 한다.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            //읽은 행을 2차 캐시에 넣지 않는다. 전체를 훑는 내보내기가 자주 읽는 항목을 밀어내지 않게 한다.
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select e from Event e"
+            + " where (:eventStatus is null or e.eventStatus = :eventStatus)"
+            + " and (:from is null or e.beginEventDateTime >= :from)"
+            + " and (:to is null or e.beginEventDateTime < :to)"
+            + " order by e.id")
+    Stream<Event> streamForExport(@Param("eventStatus") EventStatus eventStatus,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    //상태 전환을 기다리는 이벤트. (eventStatus, ...) 인덱스로 해당 상태의 행만 읽는다.
+    List<EventSchedule> findByEventStatusIn(Collection<EventStatus> eventStatuses);
+
+    List<EventSchedule> findByIdInAndEventStatus(Collection<Long> ids, EventStatus eventStatus);
+
+    //시각 조건을 다시 확인하므로, 날짜가 바뀌어 더 이상 맞지 않는 이벤트는 바뀌지 않는다.
+    //버전을 올려서 ETag 와 getEvent 응답 캐시가 새 상태를 반영하게 한다.
+    @Modifying(clearAutomatically = true)
+    @Query("update Event e set e.eventStatus = com.hj.learnrestapi.events.EventStatus.BEGAN_ENROLLMENT, e.version = e.version + 1"
+            + " where e.id in :ids"
+            + " and e.eventStatus = com.hj.learnrestapi.events.EventStatus.PUBLISHED"
+            + " and e.beginEnrollmentDateTime <= :now")
+    int beginEnrollment(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Event e set e.eventStatus = com.hj.learnrestapi.events.EventStatus.CLOSED_ENROLLMENT, e.version = e.version + 1"
+            + " where e.id in :ids"
+            + " and e.eventStatus = com.hj.learnrestapi.events.EventStatus.BEGAN_ENROLLMENT"
+            + " and e.closeEnrollmentDateTime <= :now")
+    int closeEnrollment(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    //참가 좌석의 DB 쪽 상한. 인스턴스가 여럿이어도 저장된 참가 수가 limitOfEnrollment 를 넘지 않는다.
+    //한 배치의 좌석을 행 하나에 한 번에 더하고, 상한을 넘으면 아무 행도 바꾸지 않는다(0 을 반환).
+    //enrolled 는 엔티티로 읽지 않으므로 2차 캐시의 event 영역을 비우지 않도록 enrollment 테이블과만 동기화한다.
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "enrollment"))
+    @Query(value = "update event set enrolled = enrolled + :count"
+            + " where id = :id and enrolled + :count <= limit_of_enrollment", nativeQuery = true)
+    int addEnrolled(@Param("id") Long id, @Param("count") int count);
 }
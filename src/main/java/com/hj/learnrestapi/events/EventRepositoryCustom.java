@@ -0,0 +1,27 @@
+package com.hj.learnrestapi.events;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 요청한 필드(컬럼)만 조회하는 쿼리. 결과는 필드 이름 -> 값 Map 이며, id 와 version 은 항상 들어 있다.
+ */
+public interface EventRepositoryCustom {
+    //?fields= 로 요청할 수 있는 필드. manager 는 매니저 id 이다.
+    List<String> FIELDS = List.of("id", "name", "description",
+            "beginEnrollmentDateTime", "closeEnrollmentDateTime", "beginEventDateTime", "endEventDateTime",
+            "location", "basePrice", "maxPrice", "limitOfEnrollment", "offline", "free", "eventStatus", "manager");
+
+    Page<Map<String, Object>> findFields(Specification<Event> specification, Set<String> fields, Pageable pageable);
+
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<String> fields);
+
+    //커서 위치 다음 행을 스크롤 방향 순서로 최대 limit 개 읽는다.
+    List<Event> findByCursor(Specification<Event> specification, EventCursor cursor, int limit);
+}
@@ -0,0 +1,112 @@
+package com.hj.learnrestapi.events;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.*;
+
+@RequiredArgsConstructor
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<Event> specification, Set<String> fields, Pageable pageable) {
+        TypedQuery<Tuple> query = select(specification, columns(fields), pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Map<String, Object>> content = query.getResultList().stream()
+                .map(this::toMap)
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<String> fields) {
+        Specification<Event> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return select(byId, columns(fields), Sort.unsorted()).getResultStream()
+                .findFirst()
+                .map(this::toMap);
+    }
+
+    @Override
+    public List<Event> findByCursor(Specification<Event> specification, EventCursor cursor, int limit) {
+        List<Event> events = new ArrayList<>();
+        for (EventCursor.Segment segment : cursor.segments()) {
+            if (events.size() >= limit) {
+                break;
+            }
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Event> query = cb.createQuery(Event.class);
+            Root<Event> root = query.from(Event.class);
+            Predicate predicate = specification.and(segment.specification()).toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.orderBy(QueryUtils.toOrders(segment.sort(), root, cb));
+            events.addAll(entityManager.createQuery(query)
+                    .setMaxResults(limit - events.size())
+                    .getResultList());
+        }
+        return events;
+    }
+
+    //요청 필드 + 링크, ETag 에 필요한 id, version
+    private List<String> columns(Set<String> fields) {
+        Set<String> columns = new LinkedHashSet<>(List.of("id", "version"));
+        FIELDS.stream().filter(fields::contains).forEach(columns::add);
+        return new ArrayList<>(columns);
+    }
+
+    private TypedQuery<Tuple> select(Specification<Event> specification, List<String> columns, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Event> root = query.from(Event.class);
+        query.multiselect(columns.stream().map(column -> selection(root, column)).toList());
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    //manager 는 manager_id 컬럼만 읽으므로 account 와 조인하지 않는다.
+    private Selection<?> selection(Root<Event> root, String column) {
+        if ("manager".equals(column)) {
+            return root.get("manager").get("id").alias(column);
+        }
+        return root.get(column).alias(column);
+    }
+
+    private long count(Specification<Event> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Event> root = query.from(Event.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Map<String, Object> toMap(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        tuple.getElements().forEach(element -> row.put(element.getAlias(), tuple.get(element)));
+        return row;
+    }
+}
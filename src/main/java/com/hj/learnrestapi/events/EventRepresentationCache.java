@@ -0,0 +1,129 @@
+package com.hj.learnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import com.hj.learnrestapi.common.Links;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * getEvent 의 HAL JSON 응답 본문(바이트) 캐시.
+ * 이벤트 id 로 저장하고, 버전과 base URI(링크에 들어감)가 같을 때만 사용한다.
+ * 전체 바이트 수로 크기를 제한하며, 적중률은 JMX(com.hj.learnrestapi:type=EventRepresentationCache)와
+ * Micrometer 의 cache.* 메트릭(cache=eventRepresentations, Prometheus 엔드포인트)으로 본다.
+ * 버전이나 base URI 가 달라 쓰지 못한 엔트리는 미스로 센다.
+ */
+@Component
+@ManagedResource(objectName = "com.hj.learnrestapi:type=EventRepresentationCache")
+public class EventRepresentationCache {
+    public static final String CACHE_NAME = "eventRepresentations";
+    //키, 배열 헤더 등 본문 외 엔트리 크기 추정치
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Cache<Long, Representation> representations;
+    //적중 여부는 버전까지 비교한 뒤에 알 수 있으므로 조회 통계는 직접 기록한다. 제거 통계는 캐시가 기록한다.
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private final EventMetrics eventMetrics;
+    private volatile ObjectWriter halWriter;
+
+    public EventRepresentationCache(@Value("${learn-rest-api.representation-cache.maximum-size:64MB}") DataSize maximumSize,
+                                    ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+                                    EventMetrics eventMetrics,
+                                    MeterRegistry meterRegistry) {
+        this.representations = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Long id, Representation representation) -> representation.body().length + ENTRY_OVERHEAD)
+                .recordStats(() -> statsCounter)
+                .build();
+        this.handlerAdapter = handlerAdapter;
+        this.eventMetrics = eventMetrics;
+        CaffeineCacheMetrics.monitor(meterRegistry, representations, CACHE_NAME);
+    }
+
+    public byte[] get(Event event) {
+        Representation representation = representations.policy().getIfPresentQuietly(event.getId());
+        if (representation == null || !representation.matches(event.getVersion(), Links.baseUri())) {
+            statsCounter.recordMisses(1);
+            return null;
+        }
+        statsCounter.recordHits(1);
+        return representation.body();
+    }
+
+    public byte[] put(Event event, EventResource eventResource) {
+        byte[] body = eventMetrics.getSerialization().record(() -> serialize(eventResource));
+        representations.put(event.getId(), new Representation(event.getVersion(), Links.baseUri(), body));
+        return body;
+    }
+
+    private byte[] serialize(EventResource eventResource) {
+        try {
+            return halWriter().writeValueAsBytes(eventResource);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //응답과 똑같이 직렬화하기 위해 MVC 가 HAL 응답에 쓰는 메시지 컨버터의 ObjectMapper 를 사용한다.
+    private ObjectWriter halWriter() {
+        if (halWriter == null) {
+            halWriter = handlerAdapter.getObject().getMessageConverters().stream()
+                    .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                    .map(MappingJackson2HttpMessageConverter.class::cast)
+                    .filter(converter -> converter.canWrite(EventResource.class, MediaTypes.HAL_JSON))
+                    .findFirst()
+                    .map(converter -> converter.getObjectMapper().writer())
+                    .orElseThrow(() -> new IllegalStateException("No HAL message converter"));
+        }
+        return halWriter;
+    }
+
+    public void invalidate(Long id) {
+        representations.invalidate(id);
+    }
+
+    @ManagedAttribute
+    public double getHitRatio() {
+        return representations.stats().hitRate();
+    }
+
+    @ManagedAttribute
+    public long getHitCount() {
+        return representations.stats().hitCount();
+    }
+
+    @ManagedAttribute
+    public long getMissCount() {
+        return representations.stats().missCount();
+    }
+
+    @ManagedAttribute
+    public long getWeightedSize() {
+        return representations.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private record Representation(Long version, String baseUri, byte[] body) {
+        boolean matches(Long version, String baseUri) {
+            return Objects.equals(this.version, version) && this.baseUri.equals(baseUri);
+        }
+    }
+}
@@ -3,15 +3,13 @@ package com.hj.learnrestapi.events;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import org.springframework.hateoas.RepresentationModel;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 public class EventResource extends RepresentationModel {
     @JsonUnwrapped
     private Event event;
 
     public EventResource(Event event) {
         this.event = event;
-        add(linkTo(EventController.class).slash(event.getId()).withSelfRel());
+        add(EventLinks.self(event.getId()));
     }
 
     public Event getEvent() {
@@ -0,0 +1,14 @@
+package com.hj.learnrestapi.events;
+
+import java.time.LocalDateTime;
+
+//EventLifecycleScheduler 가 상태 전환 시각을 정하는 데 필요한 컬럼만 읽는 프로젝션
+public interface EventSchedule {
+    Long getId();
+
+    EventStatus getEventStatus();
+
+    LocalDateTime getBeginEnrollmentDateTime();
+
+    LocalDateTime getCloseEnrollmentDateTime();
+}
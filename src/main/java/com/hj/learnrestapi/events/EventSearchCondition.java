@@ -0,0 +1,32 @@
+package com.hj.learnrestapi.events;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 이벤트 목록 조회 필터. 값이 없는 조건은 적용하지 않는다.
+ * 기간 조건은 모두 [from, to) 범위이다.
+ */
+@Data
+public class EventSearchCondition {
+    private EventStatus eventStatus;
+    //beginEnrollmentDateTime 기준
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime enrollmentFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime enrollmentTo;
+    //beginEventDateTime 기준
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime eventFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime eventTo;
+    private Boolean free;
+    private Boolean offline;
+    //basePrice 기준, 양 끝 포함
+    private Integer minPrice;
+    private Integer maxPrice;
+    //manager(Account) id
+    private Integer manager;
+}
@@ -0,0 +1,62 @@
+package com.hj.learnrestapi.events;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * EventSearchCondition 을 하나의 조회 조건으로 묶는다.
+ * 각 조건은 Event 의 @Table 인덱스 중 하나를 탈 수 있는 단일 컬럼 비교/범위 조건이다.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> matches(EventSearchCondition condition) {
+        return Specification.where(equalTo("eventStatus", condition.getEventStatus()))
+                .and(range("beginEnrollmentDateTime", condition.getEnrollmentFrom(), condition.getEnrollmentTo()))
+                .and(range("beginEventDateTime", condition.getEventFrom(), condition.getEventTo()))
+                .and(equalTo("free", condition.getFree()))
+                .and(equalTo("offline", condition.getOffline()))
+                .and(between("basePrice", condition.getMinPrice(), condition.getMaxPrice()))
+                .and(managedBy(condition.getManager()));
+    }
+
+    private static Specification<Event> equalTo(String attribute, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    //[from, to)
+    private static <Y extends Comparable<? super Y>> Specification<Event> range(String attribute, Y from, Y to) {
+        Specification<Event> specification = Specification.where(null);
+        if (from != null) {
+            specification = specification.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.<Y>get(attribute), from));
+        }
+        if (to != null) {
+            specification = specification.and((root, query, cb) -> cb.lessThan(root.<Y>get(attribute), to));
+        }
+        return specification;
+    }
+
+    //[min, max]
+    private static <Y extends Comparable<? super Y>> Specification<Event> between(String attribute, Y min, Y max) {
+        Specification<Event> specification = Specification.where(null);
+        if (min != null) {
+            specification = specification.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.<Y>get(attribute), min));
+        }
+        if (max != null) {
+            specification = specification.and((root, query, cb) -> cb.lessThanOrEqualTo(root.<Y>get(attribute), max));
+        }
+        return specification;
+    }
+
+    //manager_id 컬럼만 비교하므로 account 테이블과 조인하지 않는다.
+    private static Specification<Event> managedBy(Integer managerId) {
+        if (managerId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("manager").get("id"), managerId);
+    }
+}
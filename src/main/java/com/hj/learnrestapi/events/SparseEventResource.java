@@ -0,0 +1,30 @@
+package com.hj.learnrestapi.events;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ?fields= 로 요청한 필드만 담는 이벤트 표현. self 링크는 항상 포함한다.
+ * 목록에서는 EventResource 와 같은 이름(eventResourceList)으로 담긴다.
+ */
+@Relation(collectionRelation = "eventResourceList")
+public class SparseEventResource extends RepresentationModel<SparseEventResource> {
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+
+    public SparseEventResource(Map<String, Object> row, Set<String> requestedFields) {
+        EventRepositoryCustom.FIELDS.stream()
+                .filter(requestedFields::contains)
+                .forEach(field -> fields.put(field, row.get(field)));
+        add(EventLinks.self((Long) row.get("id")));
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+}
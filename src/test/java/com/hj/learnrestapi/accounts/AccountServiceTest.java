@@ -4,9 +4,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -24,6 +28,10 @@ class AccountServiceTest {
     AccountService accountService;
     @Autowired
     PasswordEncoder passwordEncoder;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    AuthenticationManager authenticationManager;
 
     @Test
     public void findByUserName() {
@@ -57,6 +65,65 @@ class AccountServiceTest {
 
     }
 
+    @Test
+    public void findByUsernameAfterSave() {
+        //Given
+        String password = "1234";
+        String username = "cached@test.com";
+        assertThrows(UsernameNotFoundException.class, () -> accountService.loadUserByUsername(username));
+
+        //When
+        Account account = Account.builder()
+                .email(username)
+                .password(password)
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        this.accountService.saveAccount(account);
+        UserDetails first = accountService.loadUserByUsername(username);
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = accountService.loadUserByUsername(username);
+
+        //Then
+        assertThat(passwordEncoder.matches(password, second.getPassword())).isTrue();
+    }
+
+    @Test
+    public void upgradePasswordWorkFactorOnLogin() {
+        //Given
+        String password = "1234";
+        String username = "rehash@test.com";
+        accountRepository.save(Account.builder()
+                .email(username)
+                .password("{bcrypt}" + new BCryptPasswordEncoder(4).encode(password))
+                .roles(Set.of(AccountRole.USER))
+                .build());
+
+        //When
+        authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+
+        //Then
+        String encoded = accountRepository.findByEmail(username).orElseThrow().getPassword();
+        assertThat(encoded).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches(password, encoded)).isTrue();
+    }
+
+    @Test
+    public void upgradeLegacyPasswordEncodingOnLogin() {
+        //Given
+        String password = "1234";
+        String username = "noop@test.com";
+        accountRepository.save(Account.builder()
+                .email(username)
+                .password("{noop}" + password)
+                .roles(Set.of(AccountRole.USER))
+                .build());
 
+        //When
+        authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(username, password));
 
-}
\ No newline at end of file
+        //Then
+        String encoded = accountRepository.findByEmail(username).orElseThrow().getPassword();
+        assertThat(encoded).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches(password, encoded)).isTrue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.hj.learnrestapi.accounts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CredentialVerifierTest {
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> authenticated = new CopyOnWriteArrayList<>();
+
+    //스레드 1개, 대기열 1칸. 첫 요청은 release 될 때까지 스레드를 잡고 있다.
+    CredentialVerifier credentialVerifier = new CredentialVerifier(authentication -> {
+        authenticated.add(authentication.getName());
+        if (authenticated.size() == 1) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(authentication.getName(), null, List.of());
+    }, 1, 1, Duration.ofMillis(200));
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        credentialVerifier.shutdown();
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 503 과 Retry-After 로 응답한다")
+    public void queueFull_ServiceUnavailable() {
+        //Given
+        credentialVerifier.authenticate(token("running"));
+        credentialVerifier.authenticate(token("queued"));
+        TokenController tokenController = new TokenController(credentialVerifier, null);
+        TokenRequest tokenRequest = new TokenRequest("rejected", "1234");
+
+        //When
+        ResponseEntity<TokenResponse> response = tokenController
+                .issueToken(tokenRequest, new BeanPropertyBindingResult(tokenRequest, "tokenRequest"))
+                .join();
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("timeout 이 지난 요청은 대기열에서 빠지고 검증하지 않는다")
+    public void skipExpiredLogin() throws Exception {
+        //Given
+        credentialVerifier.authenticate(token("running"));
+        CompletableFuture<Authentication> expired = credentialVerifier.authenticate(token("expired"));
+        assertThatThrownBy(() -> expired.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        //When : 빠진 자리에 새 요청이 들어간다.
+        CompletableFuture<Authentication> next = credentialVerifier.authenticate(token("next"));
+        release.countDown();
+
+        //Then
+        assertThat(next.get(5, TimeUnit.SECONDS).getName()).isEqualTo("next");
+        assertThat(authenticated).containsExactly("running", "next");
+    }
+
+    private Authentication token(String username) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, "1234");
+    }
+}
@@ -0,0 +1,78 @@
+package com.hj.learnrestapi.accounts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hj.learnrestapi.common.BaseControllerTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class TokenControllerTest extends BaseControllerTest {
+    @Autowired
+    AccountService accountService;
+
+    @Test
+    @DisplayName("로그인으로 받은 토큰으로 세션 없이 API 를 호출한다")
+    public void issueToken() throws Exception {
+        //Given
+        String username = "token@test.com";
+        String password = "1234";
+        accountService.saveAccount(Account.builder()
+                .email(username)
+                .password(password)
+                .roles(Set.of(AccountRole.USER))
+                .build());
+
+        //When
+        MvcResult mvcResult = mockMvc.perform(post("/api/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenRequest(username, password))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("access_token").exists())
+                .andExpect(jsonPath("token_type").value("Bearer"))
+                .andExpect(jsonPath("expires_in").exists())
+                .andExpect(request().sessionAttributeDoesNotExist("SPRING_SECURITY_CONTEXT"))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode token = objectMapper.readTree(body);
+
+        //Then
+        mockMvc.perform(get("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.get("access_token").asText()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.get("access_token").asText() + "x"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("비밀번호가 틀리면 토큰을 발급하지 않는다")
+    public void issueToken_Unauthorized() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(post("/api/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenRequest("jwj@email.com", "wrong"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("토큰 없이 호출하면 401 을 받는다")
+    public void anonymous_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/events"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists(HttpHeaders.WWW_AUTHENTICATE));
+    }
+}
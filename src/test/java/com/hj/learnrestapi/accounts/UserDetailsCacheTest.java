@@ -0,0 +1,86 @@
+package com.hj.learnrestapi.accounts;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserDetailsCacheTest {
+    private static final String USERNAME = "new@test.com";
+
+    UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+
+    @Test
+    @DisplayName("조회 중에 계정이 저장되면 없는 계정으로 기억하지 않는다")
+    public void skipNegativeEntryAfterInvalidate() {
+        //Given : 조회가 커밋 전 상태를 읽는 동안 saveAccount 가 invalidate 한다.
+        assertThatThrownBy(() -> userDetailsCache.get(USERNAME, username -> {
+            userDetailsCache.invalidate(username);
+            return Optional.empty();
+        })).isInstanceOf(UsernameNotFoundException.class);
+
+        //When
+        UserDetails userDetails = userDetailsCache.get(USERNAME, username -> Optional.of(user(username)));
+
+        //Then
+        assertThat(userDetails.getUsername()).isEqualTo(USERNAME);
+    }
+
+    @Test
+    @DisplayName("없는 계정은 negative-time-to-live 동안 다시 조회하지 않는다")
+    public void rememberUnknownUsername() {
+        assertThatThrownBy(() -> userDetailsCache.get(USERNAME, username -> Optional.empty()))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        assertThatThrownBy(() -> userDetailsCache.get(USERNAME, username -> Optional.of(user(username))))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("같은 이메일을 기다린 요청은 처음 요청의 예외를 그대로 받는다")
+    public void rethrowLoaderException() throws Exception {
+        //Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<UserDetails> first = CompletableFuture.supplyAsync(() -> userDetailsCache.get(USERNAME, username -> {
+            loading.countDown();
+            await(release);
+            throw new DataRetrievalFailureException("database is down");
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //When : 두 번째 요청이 처음 요청의 로딩을 기다리는 중에 실패한다.
+        CompletableFuture<UserDetails> second = CompletableFuture.supplyAsync(() -> userDetailsCache.get(USERNAME, username -> {
+            throw new DataRetrievalFailureException("database is down");
+        }));
+        Thread.sleep(200);
+        release.countDown();
+
+        //Then
+        assertThatThrownBy(first::join).hasCauseInstanceOf(DataRetrievalFailureException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(DataRetrievalFailureException.class);
+    }
+
+    private static UserDetails user(String username) {
+        return User.withUsername(username).password("{noop}1234").roles("USER").build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,10 +3,10 @@ package com.hj.learnrestapi.common;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hj.learnrestapi.configs.AppConfig;
 import com.hj.learnrestapi.configs.SecurityConfig;
+import com.hj.learnrestapi.events.EventMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -17,10 +17,12 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.context.WebApplicationContext;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 
@@ -36,13 +38,31 @@ public class BaseControllerTest {
     @Autowired
     protected ObjectMapper objectMapper;
     @Autowired
-    protected ModelMapper modelMapper;
+    protected EventMapper eventMapper;
+    @Autowired
+    SqlAccountingFilter sqlAccountingFilter;
 
     @BeforeEach
     void setUp(WebApplicationContext webApplicationContext, RestDocumentationContextProvider restDocumentation) {
+        //운영과 같이 보안 필터 체인보다 먼저 SQL 집계를 시작한다.
         this.mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(sqlAccountingFilter)
                 .apply(documentationConfiguration(restDocumentation))
                 .apply(springSecurity())
                 .build();
     }
+
+    //요청 하나가 실행한 SQL 문 수를 고정한다. 2차 캐시에 따라 달라질 수 있으므로 필요하면 먼저 캐시를 비운다.
+    protected static ResultMatcher sqlStatements(int expected) {
+        return result -> assertThat(SqlStatementStats.of(result.getRequest()).getStatements())
+                .as("SQL statements of %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isEqualTo(expected);
+    }
+
+    //SQL 문 수의 상한만 정한다.
+    protected static ResultMatcher sqlStatementsAtMost(int max) {
+        return result -> assertThat(SqlStatementStats.of(result.getRequest()).getStatements())
+                .as("SQL statements of %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
 }
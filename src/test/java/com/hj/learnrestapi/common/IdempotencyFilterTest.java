@@ -0,0 +1,63 @@
+package com.hj.learnrestapi.common;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+    IdempotencyFilter idempotencyFilter = new IdempotencyFilter(DataSize.ofMegabytes(1), Duration.ofHours(1), Duration.ofSeconds(1));
+
+    @Test
+    @DisplayName("먼저 읽어 둔 본문을 ReadListener 로도 읽을 수 있다")
+    public void readCachedBodyWithReadListener() throws Exception {
+        //Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/events");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "read-listener");
+        request.setContent("{\"name\":\"Spring\"}".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        //When
+        idempotencyFilter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            ServletInputStream inputStream = servletRequest.getInputStream();
+            inputStream.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[4];
+                    while (inputStream.isReady() && !inputStream.isFinished()) {
+                        int length = inputStream.read(buffer);
+                        if (length > 0) {
+                            read.write(buffer, 0, length);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    throw new AssertionError(throwable);
+                }
+            });
+        });
+
+        //Then
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"Spring\"}");
+        assertThat(allDataRead).isTrue();
+    }
+}
@@ -0,0 +1,136 @@
+package com.hj.learnrestapi.common;
+
+import com.hj.learnrestapi.configs.RateLimitProperties;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+    private final AtomicLong now = new AtomicLong();
+    private final RateLimitProperties properties = properties();
+    private final RateLimitFilter filter = new RateLimitFilter(properties,
+            new RateLimiter(Duration.ofMinutes(1), 1000, now::get));
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void rejectAfterCapacity() throws Exception {
+        //Given
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform("POST", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        //When
+        MockHttpServletResponse response = perform("POST", "10.0.0.1");
+
+        //Then
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        //조회는 다른 버킷, 다른 IP 도 다른 버킷
+        assertThat(perform("GET", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform("POST", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void refillOverTime() throws Exception {
+        //Given
+        for (int i = 0; i < 3; i++) {
+            perform("POST", "10.0.0.1");
+        }
+        assertThat(perform("POST", "10.0.0.1").getStatus()).isEqualTo(429);
+
+        //When
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        //Then
+        assertThat(perform("POST", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform("POST", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    public void limitPerAccountAcrossIps() throws Exception {
+        //Given
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken
+                .authenticated("user@test.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        //When
+        for (int i = 0; i < 2; i++) {
+            assertThat(perform("POST", "10.0.1." + i).getStatus()).isEqualTo(200);
+        }
+
+        //Then
+        assertThat(perform("POST", "10.0.1.9").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    public void limitIpBeforeAuthentication() throws Exception {
+        //Given 토큰 검증에 실패하면 계정 필터까지 가지 않는다.
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("POST", "10.0.2.1"), response,
+                    (servletRequest, servletResponse) -> ((HttpServletResponse) servletResponse).setStatus(401));
+            assertThat(response.getStatus()).isEqualTo(401);
+        }
+
+        //When
+        MockHttpServletResponse response = perform("POST", "10.0.2.1");
+
+        //Then
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    public void keepIpTokenWhenAccountRejects() throws Exception {
+        //Given
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken
+                .authenticated("user@test.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        for (int i = 0; i < 2; i++) {
+            assertThat(perform("POST", "10.0.3.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(perform("POST", "10.0.3.1").getStatus()).isEqualTo(429);
+
+        //When
+        SecurityContextHolder.clearContext();
+
+        //Then 계정에서 거절된 요청은 IP 버킷을 쓰지 않았으므로 한 번 더 보낼 수 있다.
+        assertThat(perform("POST", "10.0.3.1").getStatus()).isEqualTo(200);
+        assertThat(perform("POST", "10.0.3.1").getStatus()).isEqualTo(429);
+    }
+
+    //보안 필터 체인처럼 IP 필터, (토큰 검증), 계정 필터 순서로 태운다.
+    private MockHttpServletResponse perform(String method, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, remoteAddr), response,
+                (servletRequest, servletResponse) -> filter.accountFilter().doFilter(servletRequest, servletResponse, new MockFilterChain()));
+        return response;
+    }
+
+    private MockHttpServletRequest request(String method, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/events");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIp(new RateLimitProperties.Group(new RateLimitProperties.Limit(10, 10), new RateLimitProperties.Limit(3, 2)));
+        properties.setAccount(new RateLimitProperties.Group(new RateLimitProperties.Limit(10, 10), new RateLimitProperties.Limit(2, 1)));
+        return properties;
+    }
+}
@@ -0,0 +1,169 @@
+package com.hj.learnrestapi.common;
+
+import com.hj.learnrestapi.accounts.Account;
+import com.hj.learnrestapi.accounts.AccountRole;
+import com.hj.learnrestapi.accounts.AccountService;
+import com.hj.learnrestapi.events.Event;
+import com.hj.learnrestapi.events.EventDto;
+import com.hj.learnrestapi.events.EventRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//H2 두 개로 primary 와 복제본을 흉내 낸다. 복제는 하지 않으므로 복제본에는 스키마만 있고 행은 없다.
+@TestPropertySource(properties = {
+        "learn-rest-api.read-replica.enabled=true",
+        "learn-rest-api.read-replica.stickiness=1m",
+        "learn-rest-api.read-replica.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "learn-rest-api.read-replica.replicas[0].username=sa",
+        "learn-rest-api.read-replica.replicas[0].password="
+})
+public class ReadReplicaRoutingTest extends BaseControllerTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:rest_api_test_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    HikariDataSource primaryDataSource;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    AccountService accountService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        replica.execute("DROP ALL OBJECTS");
+        new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("--"))
+                .forEach(replica::execute);
+    }
+
+    @Test
+    @DisplayName("readOnly 트랜잭션은 복제본에서, 나머지는 primary 에서 읽는다")
+    public void routeReadOnlyTransactionsToReplica() {
+        eventRepository.save(eventMapper.toEvent(eventDto()));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertThat(readOnly.execute(status -> eventRepository.count())).isZero();
+        assertThat(readWrite.execute(status -> eventRepository.count())).isPositive();
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername 은 복제본에서 읽고, 복제본에 없는 계정은 primary 에서 확인한다")
+    public void loadUserByUsernameFromReplica() {
+        //Given : 복제본에만 있는 계정과, 아직 복제되지 않은 계정
+        replica.update("insert into account (id, email, password) values (?, ?, ?)", -1, "replica@test.com", "{noop}1234");
+        replica.update("insert into account_roles (account_id, roles) values (?, ?)", -1, AccountRole.USER.name());
+        accountService.saveAccount(Account.builder()
+                .email("primary@test.com")
+                .password("1234")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+
+        //When & Then
+        assertThat(accountService.loadUserByUsername("replica@test.com").getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+        assertThat(accountService.loadUserByUsername("primary@test.com").getUsername()).isEqualTo("primary@test.com");
+    }
+
+    @Test
+    @DisplayName("복제본에서 읽은 엔티티는 2차 캐시에 넣지 않는다")
+    public void doNotCacheReplicaReads() {
+        //Given : 복제본에는 예전 이름이 남아 있다.
+        Event event = eventRepository.save(eventMapper.toEvent(eventDto()));
+        Map<String, Object> row = new JdbcTemplate(primaryDataSource).queryForMap("select * from event where id = ?", event.getId());
+        row.put("NAME", "stale");
+        new SimpleJdbcInsert(replica).withTableName("EVENT").execute(row);
+        entityManagerFactory.getCache().evict(Event.class, event.getId());
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        //When & Then
+        assertThat(readOnly.execute(status -> eventRepository.findById(event.getId()).orElseThrow().getName())).isEqualTo("stale");
+        assertThat(readWrite.execute(status -> eventRepository.findById(event.getId()).orElseThrow().getName())).isEqualTo("Spring");
+    }
+
+    @Test
+    @DisplayName("복제본 풀도 hikaricp 메트릭을 낸다")
+    public void replicaPoolMetrics() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.execute(status -> eventRepository.count());
+
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "replica-0").gauge()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("이벤트를 만든 계정은 stickiness 동안 primary 에서 읽고, 다른 계정은 복제본에서 읽는다")
+    public void readYourWrites() throws Exception {
+        mockMvc.perform(get("/api/events").with(user("writer@test.com")).accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(0));
+
+        mockMvc.perform(post("/api/events")
+                        .with(user("writer@test.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .content(objectMapper.writeValueAsString(eventDto())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/events").with(user("writer@test.com")).accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(greaterThan(0)));
+        mockMvc.perform(get("/api/events").with(user("reader@test.com")).accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(0));
+    }
+
+    private EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 4, 12, 29))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 5, 12, 29))
+                .beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+                .endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("당산동")
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hj.learnrestapi.enrollments;
+
+import com.hj.learnrestapi.common.BaseControllerTest;
+import com.hj.learnrestapi.events.Event;
+import com.hj.learnrestapi.events.EventRepository;
+import com.hj.learnrestapi.events.EventStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class EnrollmentControllerTest extends BaseControllerTest {
+    @Autowired
+    EventRepository eventRepository;
+
+    @Test
+    @DisplayName("참가 신청하고, 좌석이 없으면 409 를 받는다")
+    public void enroll() throws Exception {
+        //Given
+        LocalDateTime now = LocalDateTime.now();
+        Event event = saveEvent(EventStatus.BEGAN_ENROLLMENT, now.minusDays(1), now.plusDays(1));
+
+        //When & Then
+        mockMvc.perform(asyncDispatch(enroll(event.getId(), user("first@test.com"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("id").exists())
+                .andExpect(jsonPath("event").value(event.getId()))
+                .andExpect(jsonPath("email").value("first@test.com"))
+                .andExpect(jsonPath("_links.event").exists())
+                .andExpect(jsonPath("_links.profile").exists());
+
+        mockMvc.perform(asyncDispatch(enroll(event.getId(), user("first@test.com"))))
+                .andExpect(status().isConflict());
+        mockMvc.perform(asyncDispatch(enroll(event.getId(), user("second@test.com"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors[0].objectName").value("enrollment"));
+    }
+
+    @Test
+    @DisplayName("신청 기간이 아니거나 신청을 받는 상태가 아니면 409 를 받는다")
+    public void enroll_Not_Open() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Event notStarted = saveEvent(EventStatus.PUBLISHED, now.plusDays(1), now.plusDays(2));
+        Event closed = saveEvent(EventStatus.BEGAN_ENROLLMENT, now.minusDays(2), now.minusDays(1));
+        Event draft = saveEvent(EventStatus.DRAFT, now.minusDays(1), now.plusDays(1));
+
+        for (Event event : new Event[]{notStarted, closed, draft}) {
+            mockMvc.perform(asyncDispatch(enroll(event.getId(), user("first@test.com"))))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("errors[0].code").value("enrollmentNotOpen"));
+        }
+    }
+
+    @Test
+    @DisplayName("없는 이벤트에는 참가 신청할 수 없다")
+    public void enroll_Not_Found() throws Exception {
+        mockMvc.perform(asyncDispatch(enroll(-1L, user("first@test.com"))))
+                .andExpect(status().isNotFound());
+    }
+
+    private Event saveEvent(EventStatus eventStatus, LocalDateTime beginEnrollmentDateTime, LocalDateTime closeEnrollmentDateTime) {
+        return eventRepository.save(Event.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(beginEnrollmentDateTime)
+                .closeEnrollmentDateTime(closeEnrollmentDateTime)
+                .beginEventDateTime(closeEnrollmentDateTime.plusDays(1))
+                .endEventDateTime(closeEnrollmentDateTime.plusDays(2))
+                .limitOfEnrollment(1)
+                .eventStatus(eventStatus)
+                .build());
+    }
+
+    private MvcResult enroll(Long eventId, RequestPostProcessor user) throws Exception {
+        return mockMvc.perform(post("/api/events/{eventId}/enrollments", eventId)
+                        .with(user)
+                        .accept(MediaTypes.HAL_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,153 @@
+package com.hj.learnrestapi.enrollments;
+
+import com.hj.learnrestapi.events.Event;
+import com.hj.learnrestapi.events.EventRepository;
+import com.hj.learnrestapi.events.EventStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EnrollmentServiceTest {
+    @Autowired
+    EnrollmentService enrollmentService;
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+    @Autowired
+    EnrollmentSeats enrollmentSeats;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("동시에 몰려도 참가 인원 제한을 넘겨 저장하지 않는다")
+    public void enrollConcurrently() throws Exception {
+        //Given
+        int limit = 50;
+        int users = 1000;
+        Event event = saveEvent(limit);
+
+        //When
+        Map<EnrollmentService.Status, Long> statuses = enrollAll(event.getId(), users, index -> "user" + index + "@test.com");
+
+        //Then
+        assertThat(statuses.get(EnrollmentService.Status.ENROLLED)).isEqualTo(limit);
+        assertThat(statuses.get(EnrollmentService.Status.SOLD_OUT)).isEqualTo(users - limit);
+        assertThat(enrollmentRepository.countByEventId(event.getId())).isEqualTo(limit);
+    }
+
+    @Test
+    @DisplayName("같은 사용자가 동시에 여러 번 신청해도 한 번만 저장한다")
+    public void enrollSameUserConcurrently() throws Exception {
+        //Given
+        Event event = saveEvent(10);
+
+        //When
+        Map<EnrollmentService.Status, Long> statuses = enrollAll(event.getId(), 100, index -> "same@test.com");
+
+        //Then
+        assertThat(statuses.get(EnrollmentService.Status.ENROLLED)).isEqualTo(1);
+        assertThat(statuses.get(EnrollmentService.Status.ALREADY_ENROLLED)).isEqualTo(99);
+        assertThat(enrollmentRepository.countByEventId(event.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 판 좌석은 DB 상한에 걸려 저장하지 않는다")
+    public void enrollOverDatabaseLimit() throws Exception {
+        //Given : 이 인스턴스의 메모리 카운터는 모르는 사이에 다른 인스턴스가 10석 중 7석을 팔았다.
+        int limit = 10;
+        Event event = saveEvent(limit);
+        transactionTemplate.executeWithoutResult(status -> eventRepository.addEnrolled(event.getId(), 7));
+
+        //When
+        Map<EnrollmentService.Status, Long> statuses = enrollAll(event.getId(), 20, index -> "user" + index + "@test.com");
+
+        //Then
+        assertThat(statuses.get(EnrollmentService.Status.ENROLLED)).isEqualTo(3);
+        assertThat(statuses.get(EnrollmentService.Status.SOLD_OUT)).isEqualTo(17);
+        assertThat(enrollmentRepository.countByEventId(event.getId())).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 먼저 저장한 신청은 유니크 키에 걸려 ALREADY_ENROLLED 가 되고 좌석을 돌려준다")
+    public void enrollAlreadySavedByOtherInstance() throws Exception {
+        //Given : 이 인스턴스가 좌석을 읽어 둔 뒤에 다른 인스턴스가 같은 사용자의 신청을 저장했다.
+        Event event = saveEvent(10);
+        assertThat(enrollmentService.enroll(event.getId(), "first@test.com").get(30, TimeUnit.SECONDS).status())
+                .isEqualTo(EnrollmentService.Status.ENROLLED);
+        transactionTemplate.executeWithoutResult(status -> {
+            eventRepository.addEnrolled(event.getId(), 1);
+            enrollmentRepository.save(Enrollment.builder()
+                    .event(eventRepository.getReferenceById(event.getId()))
+                    .email("other@test.com")
+                    .enrolledAt(LocalDateTime.now())
+                    .build());
+        });
+
+        //When
+        EnrollmentService.Result result = enrollmentService.enroll(event.getId(), "other@test.com").get(30, TimeUnit.SECONDS);
+
+        //Then
+        assertThat(result.status()).isEqualTo(EnrollmentService.Status.ALREADY_ENROLLED);
+        assertThat(enrollmentSeats.of(event.getId()).orElseThrow().getTaken()).isEqualTo(1);
+        assertThat(enrollmentRepository.countByEventId(event.getId())).isEqualTo(2);
+    }
+
+    //모든 요청을 한 번에 출발시킨다.
+    private Map<EnrollmentService.Status, Long> enrollAll(Long eventId, int requests, Function<Integer, String> email) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<EnrollmentService.Result>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return enrollmentService.enroll(eventId, email.apply(index));
+                }, executor).thenCompose(Function.identity()));
+            }
+            start.countDown();
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        }
+        return results.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.groupingBy(EnrollmentService.Result::status, Collectors.counting()));
+    }
+
+    //신청 기간 안에 있는 이벤트
+    private Event saveEvent(int limitOfEnrollment) {
+        LocalDateTime now = LocalDateTime.now();
+        return eventRepository.save(Event.builder()
+                .name("hot event")
+                .description("enrollment stress test")
+                .beginEnrollmentDateTime(now.minusDays(1))
+                .closeEnrollmentDateTime(now.plusDays(1))
+                .beginEventDateTime(now.plusDays(2))
+                .endEventDateTime(now.plusDays(3))
+                .limitOfEnrollment(limitOfEnrollment)
+                .eventStatus(EventStatus.BEGAN_ENROLLMENT)
+                .build());
+    }
+}
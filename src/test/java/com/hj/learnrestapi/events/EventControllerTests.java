@@ -1,7 +1,12 @@
 package com.hj.learnrestapi.events;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hj.learnrestapi.accounts.Account;
+import com.hj.learnrestapi.accounts.AccountRepository;
+import com.hj.learnrestapi.accounts.AccountRole;
 import com.hj.learnrestapi.common.BaseControllerTest;
 import com.hj.learnrestapi.common.TestDescription;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,10 +19,15 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
@@ -36,6 +46,10 @@ public class EventControllerTests extends BaseControllerTest {
 //    @MockBean
     @Autowired
     EventRepository eventRepository;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
 
     @TestDescription("정상적으로 이벤트를 생성하는 테스트")
 //    @DisplayName("정상적으로 이벤트를 생성하는 테스트")
@@ -132,6 +146,82 @@ public class EventControllerTests extends BaseControllerTest {
     }
 
 
+    @Test
+    @WithMockUser
+    @DisplayName("같은 Idempotency-Key 로 다시 생성 요청하면 처음 응답을 그대로 받는다")
+    public void createEventWithIdempotencyKey() throws Exception {
+        EventDto event = EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 4, 12, 29))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 5, 12, 29))
+                .beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+                .endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("당산동")
+                .build();
+        long count = eventRepository.count();
+
+        String location = mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .header("Idempotency-Key", "create-event-1")
+                        .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .header("Idempotency-Key", "create-event-1")
+                        .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, location))
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("id").exists());
+
+        assertThat(eventRepository.count()).isEqualTo(count + 1);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("같은 Idempotency-Key 로 본문이 다른 생성 요청을 보내면 422 를 받는다")
+    public void createEventWithIdempotencyKeyAndDifferentBody() throws Exception {
+        EventDto event = EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 4, 12, 29))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 5, 12, 29))
+                .beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+                .endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("당산동")
+                .build();
+        long count = eventRepository.count();
+
+        mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .header("Idempotency-Key", "create-event-2")
+                        .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isCreated());
+
+        event.setName("Spring Boot");
+        mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .header("Idempotency-Key", "create-event-2")
+                        .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        assertThat(eventRepository.count()).isEqualTo(count + 1);
+    }
+
     @Test
     @DisplayName("입력 받을 수 없는 값을 사용한 경우 에러가 발생하는 테스트")
     public void createEvent_Bad_Request() throws Exception {
@@ -214,6 +304,60 @@ public class EventControllerTests extends BaseControllerTest {
     }
 
 
+    @Test
+    @WithMockUser
+    @DisplayName("여러 이벤트를 한 번에 생성하고, 잘못된 항목은 에러로 받기")
+    public void createEvents() throws Exception {
+        EventDto event = EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 4, 12, 29))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 5, 12, 29))
+                .beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+                .endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("당산동")
+                .build();
+        EventDto wrongEvent = event.toBuilder().basePrice(10000).build();
+        EventDto emptyEvent = EventDto.builder().build();
+
+        mockMvc.perform(post("/api/events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(event, wrongEvent, event, emptyEvent))))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("created.length()").value(2))
+                .andExpect(jsonPath("created[0].id").exists())
+                .andExpect(jsonPath("created[0].free").value(false))
+                .andExpect(jsonPath("created[0]._links.self").exists())
+                .andExpect(jsonPath("errors.length()").value(2))
+                .andExpect(jsonPath("errors[0].index").value(1))
+                .andExpect(jsonPath("errors[0].errors[0].code").exists())
+                .andExpect(jsonPath("errors[1].index").value(3))
+                .andDo(document("create-events-batch"
+                        , links(
+                                linkWithRel("query-events").description("link to query events")
+                                , linkWithRel("profile").description("link to profile")
+                        )
+                ))
+        ;
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("일괄 생성할 항목이 모두 잘못된 경우 400 응답받기")
+    public void createEvents_Bad_Request() throws Exception {
+        mockMvc.perform(post("/api/events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(EventDto.builder().build()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].index").value(0));
+    }
+
     @Test
     @DisplayName("30개의 이벤트를 10개씩 두번째 페이지 조회하기.")
     public void queryEvents() throws Exception {
@@ -292,6 +436,300 @@ public class EventControllerTests extends BaseControllerTest {
 
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("페이지 크기와 상관없이 목록 조회 쿼리 수가 같다")
+    public void queryEventsStatementCount() throws Exception {
+        // Given : 이벤트마다 매니저가 다르다.
+        IntStream.range(0, 20).forEach(index -> {
+            Account manager = accountRepository.save(Account.builder()
+                    .email("manager" + index + "@test.com")
+                    .password("1234")
+                    .roles(Set.of(AccountRole.USER))
+                    .build());
+            Event event = generateEvent(index);
+            event.setManager(manager);
+            eventRepository.save(event);
+        });
+
+        // When & Then : 목록 + count 쿼리
+        entityManagerFactory.getCache().evictAll();
+        this.mockMvc.perform(get("/api/events").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(2));
+        entityManagerFactory.getCache().evictAll();
+        this.mockMvc.perform(get("/api/events").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(2));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("이벤트 하나를 조회할 때 매니저를 따로 조회하지 않는다")
+    public void getEventStatementCount() throws Exception {
+        // Given
+        Account manager = accountRepository.save(Account.builder()
+                .email("manager@test.com")
+                .password("1234")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        Event event = generateEvent(1);
+        event.setManager(manager);
+        eventRepository.save(event);
+
+        // When & Then
+        entityManagerFactory.getCache().evictAll();
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(1))
+                .andExpect(header().string("X-Sql-Statements", "1"));
+
+        // 2차 캐시에 올라간 뒤에는 SQL 없이 응답한다.
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(0));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("조건에 맞는 이벤트만 조회하기")
+    public void queryEventsWithFilter() throws Exception {
+        // Given : 조건 하나씩만 어긋나는 이벤트들. 다른 테스트의 이벤트는 basePrice 가 150 이 아니다.
+        IntStream.range(0, 5).forEach(this::generateEvent);
+        LocalDateTime inRange = LocalDateTime.of(2018, 11, 25, 14, 21);
+        Event matched = generateFilterEvent("filter matched", EventStatus.DRAFT, 150, inRange);
+        generateFilterEvent("filter other status", EventStatus.PUBLISHED, 150, inRange);
+        generateFilterEvent("filter other price", EventStatus.DRAFT, 160, inRange);
+        generateFilterEvent("filter other date", EventStatus.DRAFT, 150, inRange.plusDays(5));
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events")
+                        .param("eventStatus", "DRAFT")
+                        .param("offline", "true")
+                        .param("eventFrom", "2018-11-25T00:00:00")
+                        .param("eventTo", "2018-11-26T00:00:00")
+                        .param("minPrice", "150")
+                        .param("maxPrice", "150"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(1))
+                .andExpect(jsonPath("_embedded.eventResourceList[0].id").value(matched.getId()))
+                .andExpect(jsonPath("_embedded.eventResourceList[0].eventStatus").value("DRAFT"))
+                .andExpect(jsonPath("_embedded.eventResourceList[0].offline").value(true));
+
+        this.mockMvc.perform(get("/api/events")
+                        .param("free", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded").doesNotExist())
+                .andExpect(jsonPath("page.totalElements").value(0));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("요청한 필드만 담아서 이벤트 목록 조회하기")
+    public void queryEventsWithFields() throws Exception {
+        // Given
+        IntStream.range(0, 3).forEach(this::generateEvent);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events")
+                        .param("fields", "name,beginEventDateTime,location"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventResourceList[0].name").exists())
+                .andExpect(jsonPath("_embedded.eventResourceList[0].beginEventDateTime").exists())
+                .andExpect(jsonPath("_embedded.eventResourceList[0].location").exists())
+                .andExpect(jsonPath("_embedded.eventResourceList[0].description").doesNotExist())
+                .andExpect(jsonPath("_embedded.eventResourceList[0].id").doesNotExist())
+                .andExpect(jsonPath("_embedded.eventResourceList[0]._links.self").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("query-events-fields"))
+        ;
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("요청한 필드만 담아서 이벤트 하나 조회하기")
+    public void getEventWithFields() throws Exception {
+        // Given
+        Event event = generateEvent(100);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .param("fields", "location,name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + event.getVersion() + ";name,location\""))
+                .andExpect(jsonPath("name").value("event 100"))
+                .andExpect(jsonPath("location").exists())
+                .andExpect(jsonPath("description").doesNotExist())
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.profile").exists());
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .param("fields", "name,password"))
+                .andExpect(status().isBadRequest());
+
+        //전체 표현의 ETag 로는 부분 표현이 304 가 되지 않고, 그 반대도 마찬가지다.
+        String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .param("fields", "name,location")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + event.getVersion() + ";name,location\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("30개의 이벤트를 커서 방식으로 10개씩 조회하기.")
+    public void queryEventsByCursor() throws Exception {
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events")
+                        .param("cursor", "")
+                        .param("size", "10")
+                        .param("sort", "name,DESC"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page").doesNotExist())
+                .andExpect(jsonPath("_embedded.eventResourceList.length()").value(10))
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.prev").doesNotExist())
+                .andExpect(jsonPath("_links.profile").exists())
+
+                //REST DOCS 관련
+                .andDo(document("query-events-cursor"
+                        , links(
+                                linkWithRel("self").description("link to self")
+                                , linkWithRel("next").description("link to next page")
+                                , linkWithRel("profile").description("link to profile")
+                        )
+                        , queryParameters(
+                                parameterWithName("cursor").description("continuation token. empty for the first page")
+                                , parameterWithName("size").description("size")
+                                , parameterWithName("sort").description("sort (id, name, beginEventDateTime). first page only")
+                        )
+                ))
+        ;
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("잘못된 커서로 조회하면 400 응답받기")
+    public void queryEventsByCursor_Bad_Request() throws Exception {
+        this.mockMvc.perform(get("/api/events")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].objectName").value("cursor"))
+                .andExpect(jsonPath("errors[0].code").value("wrongCursor"));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("정렬 키가 null 인 이벤트까지 커서로 끝까지 조회하기")
+    public void queryEventsByCursorWithNullSortValues() throws Exception {
+        // Given : 조건(manager)으로 이 테스트의 이벤트만 조회한다. 3개는 beginEventDateTime 이 null 이다.
+        Account manager = accountRepository.save(Account.builder()
+                .email("cursor-manager@test.com")
+                .password("1234")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        List<Long> dated = new ArrayList<>();
+        List<Long> undated = new ArrayList<>();
+        for (int index = 0; index < 6; index++) {
+            Event event = generateEvent(index);
+            event.setManager(manager);
+            if (index % 2 == 0) {
+                event.setBeginEventDateTime(null);
+                undated.add(eventRepository.save(event).getId());
+            } else {
+                event.setBeginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21).plusDays(index));
+                dated.add(eventRepository.save(event).getId());
+            }
+        }
+
+        // When & Then : null 은 가장 큰 값으로 본다.
+        List<Long> ascending = new ArrayList<>(dated);
+        ascending.addAll(undated);
+        assertThat(scrollAll(manager.getId(), "beginEventDateTime,ASC")).isEqualTo(ascending);
+
+        List<Long> descending = new ArrayList<>(undated.reversed());
+        descending.addAll(dated.reversed());
+        assertThat(scrollAll(manager.getId(), "beginEventDateTime,DESC")).isEqualTo(descending);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("커서 조회에 fields 를 함께 주면 400 응답받기")
+    public void queryEventsByCursorWithFields() throws Exception {
+        this.mockMvc.perform(get("/api/events")
+                        .param("cursor", "")
+                        .param("fields", "name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].objectName").value("fields"));
+    }
+
+    //next 링크를 끝까지 따라가며 id 를 모은다.
+    private List<Long> scrollAll(Integer manager, String sort) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        for (int page = 0; page < 10; page++) {
+            var request = get("/api/events")
+                    .param("cursor", cursor)
+                    .param("size", "2")
+                    .param("manager", String.valueOf(manager));
+            if (cursor.isEmpty()) {
+                request.param("sort", sort);
+            }
+            String body = this.mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode root = objectMapper.readTree(body);
+            root.path("_embedded").path("eventResourceList").forEach(event -> ids.add(event.get("id").asLong()));
+            JsonNode next = root.path("_links").path("next").path("href");
+            if (next.isMissingNode()) {
+                return ids;
+            }
+            cursor = UriComponentsBuilder.fromUriString(next.asText()).build().getQueryParams().getFirst("cursor");
+        }
+        throw new AssertionError("too many pages");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("조건에 맞는 이벤트를 NDJSON 으로 내보내기")
+    public void exportEvents() throws Exception {
+        // Given
+        IntStream.range(0, 3).forEach(this::generateEvent);
+
+        // When
+        String body = this.mockMvc.perform(get("/api/events/export")
+                        .param("eventStatus", "DRAFT")
+                        .param("from", "2018-11-01T00:00:00")
+                        .param("to", "2018-12-01T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andDo(document("export-events"
+                        , queryParameters(
+                                parameterWithName("eventStatus").description("event status (optional)")
+                                , parameterWithName("from").description("begin event date time from, inclusive (optional)")
+                                , parameterWithName("to").description("begin event date time to, exclusive (optional)")
+                        )
+                ))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] lines = body.split("\n");
+        assertThat(lines.length).isGreaterThanOrEqualTo(3);
+        assertThat(objectMapper.readTree(lines[0]).get("id")).isNotNull();
+    }
+
     @Test
     @DisplayName("기존의 이벤트를 하나 조회하기")
     public void getEvent() throws Exception {
@@ -312,6 +750,50 @@ public class EventControllerTests extends BaseControllerTest {
         //Then
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("수정한 이벤트를 조회하면 캐시된 이전 본문이 아닌 새 본문을 받는다")
+    public void getEventAfterUpdate() throws Exception {
+        //Given
+        Event event = generateEvent(100);
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("event 100"));
+
+        EventDto eventDto = this.eventMapper.toEventDto(event);
+        eventDto.setName("Updated Event");
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        //When & Then
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE))
+                .andExpect(jsonPath("name").value("Updated Event"))
+                .andExpect(jsonPath("_links.self").exists());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("ETag 가 같으면 이벤트 조회 시 304 응답받기")
+    public void getEvent304() throws Exception {
+        //Given
+        Event event = generateEvent(100);
+        String eTag = mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //When & Then
+        mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     @DisplayName("없는 이벤트를 조회했을 때 404 응답받기")
     public void getEvent404() throws Exception {
@@ -325,7 +807,7 @@ public class EventControllerTests extends BaseControllerTest {
     public void updateEvent() throws Exception {
         //Given
         Event event = this.generateEvent(1234);
-        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        EventDto eventDto = this.eventMapper.toEventDto(event);
         String eventName = "Updated Event";
         eventDto.setName(eventName);
 
@@ -347,6 +829,26 @@ public class EventControllerTests extends BaseControllerTest {
         //Then
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("If-Match 가 현재 버전과 다르면 수정 실패")
+    public void updateEvent412() throws Exception {
+        //Given
+        Event event = this.generateEvent(1234);
+        EventDto eventDto = this.eventMapper.toEventDto(event);
+        eventDto.setName("Updated Event");
+
+        //When
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"" + (event.getVersion() + 1) + "\"")
+                        .content(objectMapper.writeValueAsString(eventDto)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed())
+        ;
+    }
+
     @Test
     @DisplayName("입력값이 비어있는 경우에 수정 실패")
     public void updateEvent404_Empty() throws Exception {
@@ -369,7 +871,7 @@ public class EventControllerTests extends BaseControllerTest {
         //Given
         Event event = this.generateEvent(1234);
 
-        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        EventDto eventDto = this.eventMapper.toEventDto(event);
         eventDto.setBasePrice(20000);
         eventDto.setMaxPrice(1000);
 
@@ -388,7 +890,7 @@ public class EventControllerTests extends BaseControllerTest {
     public void updateEvent404() throws Exception {
         //Given
         Event event = this.generateEvent(1234);
-        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        EventDto eventDto = this.eventMapper.toEventDto(event);
 
         //When
         this.mockMvc.perform(put("/api/events/{id}", 12345678)
@@ -400,6 +902,24 @@ public class EventControllerTests extends BaseControllerTest {
         ;
     }
 
+    private Event generateFilterEvent(String name, EventStatus eventStatus, int basePrice, LocalDateTime beginEventDateTime) {
+        return this.eventRepository.save(Event.builder()
+                .name(name)
+                .description("test event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 4, 12, 29))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 5, 12, 29))
+                .beginEventDateTime(beginEventDateTime)
+                .endEventDateTime(beginEventDateTime.plusDays(1))
+                .basePrice(basePrice)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("당산동")
+                .free(false)
+                .offline(true)
+                .eventStatus(eventStatus)
+                .build());
+    }
+
     private Event generateEvent(int index) {
         Event event = Event.builder()
                 .name("event " + index)
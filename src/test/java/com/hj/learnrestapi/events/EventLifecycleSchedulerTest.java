@@ -0,0 +1,102 @@
+package com.hj.learnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventLifecycleSchedulerTest {
+    @Autowired
+    EventLifecycleScheduler eventLifecycleScheduler;
+    @Autowired
+    EventRepository eventRepository;
+
+    @Test
+    @DisplayName("신청 시작/마감 시각이 지나면 상태가 바뀌고 버전이 오른다")
+    public void beginAndCloseEnrollment() throws Exception {
+        //Given
+        LocalDateTime now = LocalDateTime.now();
+        Event event = saveEvent(EventStatus.PUBLISHED, now.minusMinutes(1), now.plusSeconds(2));
+        Long version = event.getVersion();
+
+        //When
+        eventLifecycleScheduler.schedule(event);
+
+        //Then
+        assertThat(awaitStatus(event.getId(), EventStatus.BEGAN_ENROLLMENT, 3)).isTrue();
+        assertThat(awaitStatus(event.getId(), EventStatus.CLOSED_ENROLLMENT, 5)).isTrue();
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getVersion()).isEqualTo(version + 2);
+    }
+
+    @Test
+    @DisplayName("날짜가 바뀌어 지난 전환은 상태를 바꾸지 않는다")
+    public void ignoreStaleTransition() throws Exception {
+        //Given
+        LocalDateTime now = LocalDateTime.now();
+        Event event = saveEvent(EventStatus.PUBLISHED, now.plusSeconds(1), now.plusDays(1));
+        eventLifecycleScheduler.schedule(event);
+
+        //When : 시작 시각을 미룬다.
+        event.setBeginEnrollmentDateTime(now.plusDays(1));
+        event = eventRepository.save(event);
+        eventLifecycleScheduler.schedule(event);
+
+        //Then
+        assertThat(awaitStatus(event.getId(), EventStatus.BEGAN_ENROLLMENT, 3)).isFalse();
+    }
+
+    @Test
+    @DisplayName("다시 넣으면 이벤트의 기다리던 전환을 바꾼다")
+    public void replacePendingTransition() {
+        //Given
+        LocalDateTime now = LocalDateTime.now();
+        Event event = saveEvent(EventStatus.PUBLISHED, now.plusDays(1), now.plusDays(2));
+        eventLifecycleScheduler.schedule(event);
+
+        //When
+        for (int i = 2; i <= 3; i++) {
+            event.setBeginEnrollmentDateTime(now.plusHours(i));
+            eventLifecycleScheduler.schedule(event);
+        }
+
+        //Then
+        assertThat(eventLifecycleScheduler.pendingTransitions(event.getId())).isEqualTo(1);
+
+        //다음 전환이 없는 상태가 되면 기다리던 전환도 뺀다.
+        event.setEventStatus(EventStatus.DRAFT);
+        eventLifecycleScheduler.schedule(event);
+        assertThat(eventLifecycleScheduler.pendingTransitions(event.getId())).isZero();
+    }
+
+    private boolean awaitStatus(Long id, EventStatus eventStatus, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            if (eventRepository.findById(id).orElseThrow().getEventStatus() == eventStatus) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private Event saveEvent(EventStatus eventStatus, LocalDateTime beginEnrollmentDateTime, LocalDateTime closeEnrollmentDateTime) {
+        return eventRepository.save(Event.builder()
+                .name("scheduled event")
+                .description("lifecycle scheduler test")
+                .beginEnrollmentDateTime(beginEnrollmentDateTime)
+                .closeEnrollmentDateTime(closeEnrollmentDateTime)
+                .beginEventDateTime(closeEnrollmentDateTime.plusDays(1))
+                .endEventDateTime(closeEnrollmentDateTime.plusDays(2))
+                .limitOfEnrollment(100)
+                .eventStatus(eventStatus)
+                .build());
+    }
+}